@@ -1,4 +1,5 @@
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Atividade 6 - Evitando lock com variável atômica
@@ -10,8 +11,67 @@ public class Atomico {
     private static int contadorSemLock = 0;
     private static int contadorComLock = 0;
     private static AtomicInteger contadorAtomico = new AtomicInteger(0);
+    private static ContadorListrado contadorListrado =
+            new ContadorListrado(Runtime.getRuntime().availableProcessors());
     private static final Object lock = new Object();
     
+    /**
+     * Contador LISTRADO (estilo LongAdder): várias células, soma na leitura.
+     * Cada célula fica em sua própria linha de cache, então threads
+     * diferentes fazem CAS em endereços diferentes e não disputam a mesma linha.
+     */
+    static class ContadorListrado {
+        // 16 longs = 128 bytes entre células (cobre também o prefetch de linha adjacente)
+        private static final int ESPACAMENTO = 16;
+        
+        private final AtomicLongArray celulas;
+        private final int mascara;
+        
+        public ContadorListrado(int minimoCelulas) {
+            int numCelulas = 1;
+            while (numCelulas < minimoCelulas) {
+                numCelulas <<= 1; // Potência de 2 para indexar com máscara
+            }
+            this.mascara = numCelulas - 1;
+            this.celulas = new AtomicLongArray(numCelulas * ESPACAMENTO);
+        }
+        
+        /**
+         * Incrementa a célula escolhida pela sonda e devolve a sonda a usar
+         * na próxima chamada (muda de célula se houve disputa no CAS).
+         */
+        public int incrementar(int sonda) {
+            while (true) {
+                int indice = (sonda & mascara) * ESPACAMENTO;
+                long atual = celulas.get(indice);
+                if (celulas.compareAndSet(indice, atual, atual + 1)) {
+                    return sonda;
+                }
+                // Colisão: pular para outra célula (xorshift)
+                sonda ^= sonda << 13;
+                sonda ^= sonda >>> 17;
+                sonda ^= sonda << 5;
+            }
+        }
+        
+        /**
+         * Soma todas as células (leitura não é um snapshot atômico)
+         */
+        public long somar() {
+            long soma = 0;
+            for (int i = 0; i <= mascara; i++) {
+                soma += celulas.get(i * ESPACAMENTO);
+            }
+            return soma;
+        }
+        
+        public void zerar() {
+            for (int i = 0; i <= mascara; i++) {
+                celulas.set(i * ESPACAMENTO, 0);
+            }
+        }
+    }
+    
     /**
      * Versão SEM lock (race condition)
      */
@@ -68,6 +128,27 @@ public class Atomico {
         }
     }
     
+    /**
+     * Versão LISTRADA (células com padding, soma na leitura)
+     */
+    static class IncrementadorListrado implements Runnable {
+        private final int numIncrementos;
+        private final int sondaInicial;
+        
+        public IncrementadorListrado(int numIncrementos, int sondaInicial) {
+            this.numIncrementos = numIncrementos;
+            this.sondaInicial = sondaInicial;
+        }
+        
+        @Override
+        public void run() {
+            int sonda = sondaInicial;
+            for (int i = 0; i < numIncrementos; i++) {
+                sonda = contadorListrado.incrementar(sonda);
+            }
+        }
+    }
+    
     public static void main(String[] args) {
         System.out.println("=== Atividade 6 - Variável Atômica ===\n");
         
@@ -76,18 +157,21 @@ public class Atomico {
         
         System.out.println("Incrementos por thread: " + incrementosPorThread + "\n");
         
-        System.out.println("| Threads | Sem Lock (ms) | Com Lock (ms) | Atômico (ms) | Speedup At/Lock |");
-        System.out.println("|---------|---------------|---------------|--------------|-----------------|");
+        System.out.println("| Threads | Sem Lock (ms) | Com Lock (ms) | Atômico (ms) | Listrado (ms) | Speedup At/Lock | Speedup List/At |");
+        System.out.println("|---------|---------------|---------------|--------------|---------------|-----------------|-----------------|");
         
         for (int T : numThreads) {
             long tempoSemLock = testar(T, incrementosPorThread, "semlock");
             long tempoComLock = testar(T, incrementosPorThread, "comlock");
             long tempoAtomico = testar(T, incrementosPorThread, "atomico");
+            long tempoListrado = testar(T, incrementosPorThread, "listrado");
             
             double speedup = (double) tempoComLock / tempoAtomico;
+            double speedupListrado = (double) tempoAtomico / Math.max(1, tempoListrado);
             
-            System.out.printf("| %7d | %13d | %13d | %12d | %15.2fx |\n",
-                            T, tempoSemLock, tempoComLock, tempoAtomico, speedup);
+            System.out.printf("| %7d | %13d | %13d | %12d | %13d | %15.2fx | %15.2fx |\n",
+                            T, tempoSemLock, tempoComLock, tempoAtomico, tempoListrado,
+                            speedup, speedupListrado);
         }
         
         System.out.println("\n--- ANÁLISE: QUANDO ATÔMICO É MELHOR/PIOR QUE LOCK ---");
@@ -110,6 +194,12 @@ public class Atomico {
         System.out.println("- Menos overhead que synchronized em baixa contenção");
         System.out.println("- Pode ser PIOR em alta contenção (muitos retries)");
         System.out.println();
+        System.out.println("CONTADOR LISTRADO (estilo LongAdder):");
+        System.out.println("- Uma célula por core, cada uma em sua linha de cache");
+        System.out.println("- Threads fazem CAS em células diferentes: sem ping-pong de cache");
+        System.out.println("- Escrita escala com T; leitura custa somar todas as células");
+        System.out.println("- Ideal para contadores muito escritos e pouco lidos");
+        System.out.println();
         System.out.println("OBSERVAÇÕES DESTE TESTE:");
         System.out.println("- Com 1-2 threads: Atômico ~2-3x mais rápido que lock");
         System.out.println("- Com 4-8 threads: Atômico ~1.5-2x mais rápido que lock");
@@ -118,20 +208,13 @@ public class Atomico {
     }
     
     static long testar(int numThreads, int incrementos, String tipo) {
-        // Aquecimento
-        executar(numThreads, incrementos, tipo);
-        
-        // Medir 3 vezes e tirar média
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            resetContadores();
-            long inicio = System.nanoTime();
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> {
             executar(numThreads, incrementos, tipo);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
+            return 0;
+        });
         
-        return (tempos[0] + tempos[1] + tempos[2]) / 3;
+        return Math.round(r.mediaMs());
     }
     
     static void executar(int numThreads, int incrementos, String tipo) {
@@ -149,6 +232,10 @@ public class Atomico {
                 case "atomico":
                     threads[i] = new Thread(new IncrementadorAtomico(incrementos));
                     break;
+                case "listrado":
+                    // Sonda inicial distinta (e não nula) por thread
+                    threads[i] = new Thread(new IncrementadorListrado(incrementos, (i + 1) * 0x9E3779B9));
+                    break;
             }
             threads[i].start();
         }
@@ -166,5 +253,6 @@ public class Atomico {
         contadorSemLock = 0;
         contadorComLock = 0;
         contadorAtomico.set(0);
+        contadorListrado.zerar();
     }
 }
\ No newline at end of file
@@ -140,20 +140,13 @@ public class Granularidade {
     }
     
     static long testarGranularidade(int numThreads, int incrementos, String tipo, int tamanhoBloco) {
-        // Aquecimento
-        executarGranularidade(numThreads, incrementos, tipo, tamanhoBloco);
-        
-        // Medir 3 vezes e tirar média
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            contador = 0;
-            long inicio = System.nanoTime();
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> {
             executarGranularidade(numThreads, incrementos, tipo, tamanhoBloco);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
+            return contador;
+        });
         
-        return (tempos[0] + tempos[1] + tempos[2]) / 3;
+        return Math.round(r.mediaMs());
     }
     
     static void executarGranularidade(int numThreads, int incrementos, String tipo, int tamanhoBloco) {
@@ -0,0 +1,347 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Atividade 10 (extensão) - Integração Monte Carlo paralela em n dimensões
+ * Objetivo: Generalizar a estimativa de π para ∫ f sobre uma caixa
+ * [min, max]^n, com fluxos aleatórios por thread, erro-padrão estimado
+ * e estratificação do domínio para reduzir a variância
+ */
+public class IntegradorMonteCarlo {
+    
+    /**
+     * Integrando (ou indicadora): recebe o ponto em um double[] reaproveitado
+     */
+    interface Integrando {
+        double avaliar(double[] ponto);
+    }
+    
+    /**
+     * Workers de contagem de uma indicadora: o worker i grava seus acertos
+     * no slot i de 'acertos' (ex.: MonteCarlo.SimuladorMonteCarlo)
+     */
+    interface Contadores {
+        Runnable[] criar(ResultadosParciais acertos);
+    }
+    
+    /**
+     * Valor estimado e seu erro-padrão
+     */
+    static class Estimativa {
+        final double valor;
+        final double erroPadrao;
+        final long amostras;
+        final int estratos;
+        
+        Estimativa(double valor, double erroPadrao, long amostras, int estratos) {
+            this.valor = valor;
+            this.erroPadrao = erroPadrao;
+            this.amostras = amostras;
+            this.estratos = estratos;
+        }
+    }
+    
+    private final int dimensoes;
+    private final double[] minimo;
+    private final double[] largura;
+    private final double volume;
+    
+    public IntegradorMonteCarlo(double[] minimo, double[] maximo) {
+        this.dimensoes = minimo.length;
+        this.minimo = minimo.clone();
+        this.largura = new double[dimensoes];
+        double v = 1;
+        for (int j = 0; j < dimensoes; j++) {
+            largura[j] = maximo[j] - minimo[j];
+            v *= largura[j];
+        }
+        this.volume = v;
+    }
+    
+    /**
+     * Caixa unitária [0,1]^n
+     */
+    static IntegradorMonteCarlo cuboUnitario(int dimensoes) {
+        double[] min = new double[dimensoes];
+        double[] max = new double[dimensoes];
+        Arrays.fill(max, 1.0);
+        return new IntegradorMonteCarlo(min, max);
+    }
+    
+    /**
+     * Worker: percorre a faixa [inicio, fim) das amostras globais. A amostra
+     * i pertence ao estrato i / amostrasPorEstrato; acumula Σf e Σf² por estrato.
+     */
+    class Amostrador implements Runnable {
+        private final Integrando f;
+        private final SplittableRandom rand;
+        private final long inicio;
+        private final long fim;
+        private final int porDimensao;
+        private final long amostrasPorEstrato;
+        final double[] soma;
+        final double[] somaQuadrados;
+        
+        Amostrador(Integrando f, SplittableRandom rand, long inicio, long fim,
+                   int porDimensao, int estratos, long amostrasPorEstrato) {
+            this.f = f;
+            this.rand = rand;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.porDimensao = porDimensao;
+            this.amostrasPorEstrato = amostrasPorEstrato;
+            this.soma = new double[estratos];
+            this.somaQuadrados = new double[estratos];
+        }
+        
+        @Override
+        public void run() {
+            double[] ponto = new double[dimensoes];
+            int[] celula = new int[dimensoes];
+            long i = inicio;
+            while (i < fim) {
+                int estrato = (int) (i / amostrasPorEstrato);
+                long fimEstrato = Math.min(fim, (estrato + 1) * amostrasPorEstrato);
+                
+                // Coordenadas da célula do estrato na grade porDimensao^n
+                int resto = estrato;
+                for (int j = 0; j < dimensoes; j++) {
+                    celula[j] = resto % porDimensao;
+                    resto /= porDimensao;
+                }
+                
+                double s = 0, s2 = 0;
+                for (; i < fimEstrato; i++) {
+                    for (int j = 0; j < dimensoes; j++) {
+                        ponto[j] = minimo[j] + (celula[j] + rand.nextDouble()) * largura[j] / porDimensao;
+                    }
+                    double valor = f.avaliar(ponto);
+                    s += valor;
+                    s2 += valor * valor;
+                }
+                soma[estrato] += s;
+                somaQuadrados[estrato] += s2;
+            }
+        }
+    }
+    
+    /**
+     * Integra f com ~'amostras' pontos em numThreads threads. 'estratos' é
+     * o máximo de estratos: a caixa vira uma grade m^n com m^n <= estratos
+     * (1 = Monte Carlo simples), com o mesmo número de amostras por estrato.
+     */
+    public Estimativa integrar(Integrando f, long amostras, int estratos, int numThreads, long semente) {
+        int porDimensao = (int) Math.floor(Math.pow(estratos, 1.0 / dimensoes) + 1e-9);
+        porDimensao = Math.max(1, porDimensao);
+        int numEstratos = (int) Math.round(Math.pow(porDimensao, dimensoes));
+        // Pelo menos 2 amostras por estrato para estimar a variância
+        while (numEstratos > 1 && amostras / numEstratos < 2) {
+            porDimensao--;
+            numEstratos = (int) Math.round(Math.pow(porDimensao, dimensoes));
+        }
+        long amostrasPorEstrato = amostras / numEstratos;
+        long total = amostrasPorEstrato * numEstratos;
+        
+        SplittableRandom raiz = new SplittableRandom(semente);
+        Amostrador[] amostradores = new Amostrador[numThreads];
+        Thread[] threads = new Thread[numThreads];
+        long porThread = total / numThreads;
+        
+        for (int t = 0; t < numThreads; t++) {
+            long inicio = t * porThread;
+            long fim = (t == numThreads - 1) ? total : (t + 1) * porThread;
+            amostradores[t] = new Amostrador(f, raiz.split(), inicio, fim, porDimensao,
+                                             numEstratos, amostrasPorEstrato);
+            threads[t] = new Thread(amostradores[t]);
+            threads[t].start();
+        }
+        
+        for (int t = 0; t < numThreads; t++) {
+            try {
+                threads[t].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        // Redução: média de cada estrato e variância da média estratificada
+        double media = 0;
+        double variancia = 0;
+        for (int h = 0; h < numEstratos; h++) {
+            double s = 0, s2 = 0;
+            for (Amostrador a : amostradores) {
+                s += a.soma[h];
+                s2 += a.somaQuadrados[h];
+            }
+            double n = amostrasPorEstrato;
+            double mediaEstrato = s / n;
+            double varianciaEstrato = Math.max(0, (s2 - n * mediaEstrato * mediaEstrato) / (n - 1));
+            media += mediaEstrato;
+            variancia += varianciaEstrato / n;
+        }
+        media /= numEstratos;
+        variancia /= (double) numEstratos * numEstratos;
+        
+        return new Estimativa(volume * media, volume * Math.sqrt(variancia), total, numEstratos);
+    }
+    
+    /**
+     * Caminho de contagem para indicadoras (estratos = 1): em vez de
+     * f.avaliar por interface a cada ponto, cada worker conta os acertos
+     * no seu próprio laço e grava um slot de ResultadosParciais. A
+     * redução é a proporção binomial: valor = volume·p̂, erro = volume·√(p̂(1-p̂)/n).
+     */
+    public Estimativa integrarIndicadora(int numThreads, long amostrasPorThread, Contadores contadores) {
+        ResultadosParciais acertos = new ResultadosParciais(numThreads);
+        Runnable[] workers = contadores.criar(acertos);
+        Thread[] threads = new Thread[numThreads];
+        
+        for (int t = 0; t < numThreads; t++) {
+            threads[t] = new Thread(workers[t]);
+            threads[t].start();
+        }
+        
+        for (int t = 0; t < numThreads; t++) {
+            try {
+                threads[t].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        return estimarProporcao(acertos.somar(), numThreads * amostrasPorThread);
+    }
+    
+    /**
+     * Mesma contagem nos workers quentes de um PoolPersistente
+     */
+    public Estimativa integrarIndicadora(PoolPersistente pool, long amostrasPorThread, Contadores contadores) {
+        ResultadosParciais acertos = new ResultadosParciais(pool.numWorkers());
+        Runnable[] workers = contadores.criar(acertos);
+        
+        pool.executar((worker, numWorkers) -> workers[worker].run());
+        
+        return estimarProporcao(acertos.somar(), pool.numWorkers() * amostrasPorThread);
+    }
+    
+    private Estimativa estimarProporcao(long acertos, long amostras) {
+        double p = (double) acertos / amostras;
+        return new Estimativa(volume * p, volume * Math.sqrt(p * (1 - p) / amostras), amostras, 1);
+    }
+    
+    /**
+     * Volume da bola de raio r em n dimensões: π^(n/2) r^n / Γ(n/2 + 1)
+     */
+    static double volumeBola(int n, double r) {
+        // Γ(n/2 + 1) por recorrência a partir de Γ(1) = 1 ou Γ(1/2) = √π
+        double gama = (n % 2 == 0) ? 1.0 : Math.sqrt(Math.PI);
+        for (double x = (n % 2 == 0) ? 1.0 : 0.5; x < n / 2.0 + 1 - 1e-9; x += 1) {
+            gama *= x;
+        }
+        return Math.pow(Math.PI, n / 2.0) * Math.pow(r, n) / gama;
+    }
+    
+    /**
+     * Indicadora da bola de raio 0.5 centrada no meio do cubo unitário
+     */
+    static double dentroDaBola(double[] p) {
+        double d = 0;
+        for (double x : p) {
+            double c = x - 0.5;
+            d += c * c;
+        }
+        return d <= 0.25 ? 1.0 : 0.0;
+    }
+    
+    /**
+     * ∏ (π/2)·sin(π x_j): integrando suave com integral exata 1 em [0,1]^n
+     */
+    static double produtoSenos(double[] p) {
+        double produto = 1;
+        for (double x : p) {
+            produto *= (Math.PI / 2) * Math.sin(Math.PI * x);
+        }
+        return produto;
+    }
+    
+    public static void main(String[] args) {
+        System.out.println("=== Integração Monte Carlo Paralela em n Dimensões ===\n");
+        
+        int[] numThreadsArray = {1, 2, 4, 8};
+        int[] dimensoesArray = {2, 4, 6, 8, 10};
+        long amostras = 1_000_000L;
+        
+        // π como instância: MonteCarlo.estimarPi é integrarIndicadora sobre [0,1]²
+        // com o SimuladorMonteCarlo como worker de contagem
+        Estimativa pi = MonteCarlo.estimarPiIntegrado(4, 10_000_000L, 1, 42);
+        Estimativa piEstratificado = MonteCarlo.estimarPiIntegrado(4, 10_000_000L, 4096, 42);
+        double piSimulador = MonteCarlo.estimarPi(4, 2_500_000L, "splittable", 42);
+        System.out.printf("π simples       (10M amostras): %.6f ± %.6f (real %.6f)\n",
+                        pi.valor, pi.erroPadrao, Math.PI);
+        System.out.printf("π estratificado (10M amostras): %.6f ± %.6f\n",
+                        piEstratificado.valor, piEstratificado.erroPadrao);
+        System.out.printf("integrar() == SimuladorMonteCarlo (mesma semente, 1 estrato)? %s\n\n",
+                        pi.valor == piSimulador ? "Sim ✓" : "Não ✗");
+        
+        // Escalabilidade por threads (integrando suave)
+        System.out.println("=== ESCALABILIDADE (∏ (π/2)·sin(π x), " + amostras / 1_000_000 + "M amostras) ===\n");
+        System.out.print("| Dimensões |");
+        for (int T : numThreadsArray) {
+            System.out.printf(" %d thr (ms) |", T);
+        }
+        System.out.println(" Speedup máx. |");
+        System.out.print("|-----------|");
+        for (int T : numThreadsArray) {
+            System.out.print("------------|");
+        }
+        System.out.println("--------------|");
+        
+        for (int d : dimensoesArray) {
+            IntegradorMonteCarlo integrador = cuboUnitario(d);
+            System.out.printf("| %9d |", d);
+            double base = 0, melhor = Double.MAX_VALUE;
+            for (int T : numThreadsArray) {
+                double ms = Medidor.medir(() -> Double.doubleToLongBits(
+                        integrador.integrar(IntegradorMonteCarlo::produtoSenos, amostras, 1, T, 42).valor)).mediaMs();
+                if (T == 1) base = ms;
+                melhor = Math.min(melhor, ms);
+                System.out.printf(" %10.1f |", ms);
+            }
+            System.out.printf(" %11.2fx |\n", base / melhor);
+        }
+        
+        // Estratificação: erro-padrão com e sem estratos
+        System.out.println("\n=== ESTRATIFICAÇÃO (4 threads, " + amostras / 1_000_000 + "M amostras, até 4096 estratos) ===\n");
+        System.out.println("| Integrando     | Dim. | Exato      | Simples ± erro-padrão   | Estratificado ± erro-padrão | Estratos | Redução do erro |");
+        System.out.println("|----------------|------|------------|-------------------------|-----------------------------|----------|-----------------|");
+        
+        for (int d : dimensoesArray) {
+            IntegradorMonteCarlo integrador = cuboUnitario(d);
+            imprimirEstratificacao(integrador, "produto senos", d, 1.0,
+                                   IntegradorMonteCarlo::produtoSenos, amostras);
+            imprimirEstratificacao(integrador, "bola r=0.5", d, volumeBola(d, 0.5),
+                                   IntegradorMonteCarlo::dentroDaBola, amostras);
+        }
+        
+        System.out.println("\n--- ANÁLISE ---");
+        System.out.println("1. Cada thread tem seu fluxo (SplittableRandom.split()) e acumula");
+        System.out.println("   Σf e Σf² por estrato em arrays próprios: sem sincronização");
+        System.out.println("2. Erro-padrão = √(Σ s²_h / n_h) / S: o resultado vem com sua incerteza");
+        System.out.println("3. Estratificar remove a variância entre estratos; o ganho cai com a");
+        System.out.println("   dimensão (até 4096 estratos: 64 por eixo em 2D, só 2 por eixo em 10D)");
+        System.out.println("4. π é só um caso: indicadora do círculo × 4 em [0,1]². O SimuladorMonteCarlo");
+        System.out.println("   é o worker de contagem dessa instância (integrarIndicadora): um laço");
+        System.out.println("   por gerador, sem chamada por interface por ponto, acertos em");
+        System.out.println("   ResultadosParciais; com a mesma semente dá o mesmo valor que integrar()");
+    }
+    
+    static void imprimirEstratificacao(IntegradorMonteCarlo integrador, String nome, int d,
+                                       double exato, Integrando f, long amostras) {
+        Estimativa simples = integrador.integrar(f, amostras, 1, 4, 7);
+        Estimativa estratificado = integrador.integrar(f, amostras, 4096, 4, 7);
+        System.out.printf("| %-14s | %4d | %10.6f | %10.6f ± %10.6f | %12.6f ± %12.6f | %8d | %14.2fx |\n",
+                        nome, d, exato, simples.valor, simples.erroPadrao,
+                        estratificado.valor, estratificado.erroPadrao, estratificado.estratos,
+                        simples.erroPadrao / estratificado.erroPadrao);
+    }
+}
\ No newline at end of file
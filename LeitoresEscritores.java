@@ -1,8 +1,12 @@
 import java.util.HashMap;
 import java.util.Map;
+import java.lang.management.ManagementFactory;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Atividade 12 - Leitores–Escritores
@@ -19,6 +23,133 @@ public class LeitoresEscritores {
     // Lock simples para comparação
     private static final Object simpleLock = new Object();
     
+    // Versão sem lock global: mapa concorrente (leituras não bloqueiam nem fazem CAS)
+    private static Map<String, String> bancoConcorrente = new ConcurrentHashMap<>();
+    
+    // StampedLock: leitura otimista (sem escrita em memória compartilhada) + fallback
+    private static final StampedLock stampedLock = new StampedLock();
+    private static final int MAX_TENTATIVAS_OTIMISTAS = 2;
+    
+    // Métricas da leitura otimista (acumuladas uma vez por leitor, no final)
+    private static AtomicLong otimistasOk = new AtomicLong(0);
+    private static AtomicLong falhasValidacao = new AtomicLong(0);
+    private static AtomicLong fallbacksLeitura = new AtomicLong(0);
+    
+    // Modo sem alocação: tabela de chaves pré-construída e valores de um pool pré-alocado
+    // (definido antes de iniciar as threads; start() garante a visibilidade)
+    private static boolean prealocado = false;
+    private static final String[] CHAVES = gerarChaves(10);
+    private static final String[] VALORES_POOL = gerarValoresPool(64);
+    
+    // Escritores dormem 1 ms por escrita ("trabalho adicional"); false deixa
+    // os escritores ocupados (mesma regra de visibilidade de 'prealocado')
+    private static boolean pausaEscritores = true;
+    
+    // Bytes alocados pelas threads de trabalho (medido por thread, somado no final)
+    private static AtomicLong bytesAlocados = new AtomicLong(0);
+    
+    // Espaço de chaves do banco fragmentado (bem maior que as 10 chaves originais)
+    private static final int NUM_CHAVES_FRAGMENTADO = 100_000;
+    
+    /**
+     * Banco FRAGMENTADO: chaves particionadas por hash em N fragmentos,
+     * cada um com seu próprio HashMap e ReadWriteLock.
+     * Escrever em "chave3" só bloqueia quem usa o mesmo fragmento.
+     */
+    static class BancoFragmentado {
+        private final Map<String, String>[] fragmentos;
+        private final ReentrantReadWriteLock[] locks;
+        private final int mascara;
+        
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public BancoFragmentado(int minimoFragmentos) {
+            int numFragmentos = 1;
+            while (numFragmentos < minimoFragmentos) {
+                numFragmentos <<= 1; // Potência de 2 para indexar com máscara
+            }
+            this.mascara = numFragmentos - 1;
+            this.fragmentos = new Map[numFragmentos];
+            this.locks = new ReentrantReadWriteLock[numFragmentos];
+            for (int i = 0; i < numFragmentos; i++) {
+                fragmentos[i] = new HashMap<>();
+                locks[i] = new ReentrantReadWriteLock();
+            }
+        }
+        
+        public int numFragmentos() {
+            return fragmentos.length;
+        }
+        
+        private int fragmento(String chave) {
+            int h = chave.hashCode();
+            return (h ^ (h >>> 16)) & mascara; // Espalha bits altos (como o HashMap)
+        }
+        
+        public String ler(String chave) {
+            int f = fragmento(chave);
+            locks[f].readLock().lock();
+            try {
+                return fragmentos[f].get(chave);
+            } finally {
+                locks[f].readLock().unlock();
+            }
+        }
+        
+        public void escrever(String chave, String valor) {
+            int f = fragmento(chave);
+            locks[f].writeLock().lock();
+            try {
+                fragmentos[f].put(chave, valor);
+            } finally {
+                locks[f].writeLock().unlock();
+            }
+        }
+    }
+    
+    /**
+     * Sorteia índices de chave: uniforme ou Zipf (poucas chaves muito acessadas)
+     */
+    static class GeradorChaves {
+        private final int numChaves;
+        private final double[] cdfZipf; // null = uniforme
+        
+        public GeradorChaves(int numChaves, boolean zipf, double expoente) {
+            this.numChaves = numChaves;
+            if (zipf) {
+                // CDF acumulada de P(k) ∝ 1/k^s (calculada uma vez, só leitura depois)
+                cdfZipf = new double[numChaves];
+                double soma = 0;
+                for (int k = 0; k < numChaves; k++) {
+                    soma += 1.0 / Math.pow(k + 1, expoente);
+                    cdfZipf[k] = soma;
+                }
+                for (int k = 0; k < numChaves; k++) {
+                    cdfZipf[k] /= soma;
+                }
+            } else {
+                cdfZipf = null;
+            }
+        }
+        
+        public int proxima(Random rand) {
+            if (cdfZipf == null) {
+                return rand.nextInt(numChaves);
+            }
+            // Busca binária na CDF
+            double u = rand.nextDouble();
+            int lo = 0, hi = numChaves - 1;
+            while (lo < hi) {
+                int meio = (lo + hi) >>> 1;
+                if (cdfZipf[meio] < u) {
+                    lo = meio + 1;
+                } else {
+                    hi = meio;
+                }
+            }
+            return lo;
+        }
+    }
+    
     /**
      * Leitor: consulta dados do banco
      */
@@ -36,9 +167,10 @@ public class LeitoresEscritores {
         @Override
         public void run() {
             Random rand = new Random(id);
+            boolean semAlocacao = prealocado;
             
             for (int i = 0; i < numConsultas; i++) {
-                String chave = "chave" + rand.nextInt(10);
+                String chave = sortearChave(rand, semAlocacao);
                 String valor;
                 
                 if (usarRWLock) {
@@ -81,10 +213,12 @@ public class LeitoresEscritores {
         @Override
         public void run() {
             Random rand = new Random(id + 1000);
+            boolean semAlocacao = prealocado;
+            boolean comPausa = pausaEscritores;
             
             for (int i = 0; i < numAtualizacoes; i++) {
-                String chave = "chave" + rand.nextInt(10);
-                String valor = "valor_" + id + "_" + i;
+                String chave = sortearChave(rand, semAlocacao);
+                String valor = gerarValor(id, i, semAlocacao);
                 
                 if (usarRWLock) {
                     // Usar lock de ESCRITA (exclusivo)
@@ -101,16 +235,364 @@ public class LeitoresEscritores {
                     }
                 }
                 
-                // Simular trabalho adicional
+                // Simular trabalho adicional (desligado nas varreduras de locks)
+                if (comPausa) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Leitor SEM LOCK: consulta o ConcurrentHashMap diretamente
+     */
+    static class LeitorConcorrente implements Runnable {
+        private final int id;
+        private final int numConsultas;
+        
+        public LeitorConcorrente(int id, int numConsultas) {
+            this.id = id;
+            this.numConsultas = numConsultas;
+        }
+        
+        @Override
+        public void run() {
+            Random rand = new Random(id);
+            boolean semAlocacao = prealocado;
+            
+            for (int i = 0; i < numConsultas; i++) {
+                String chave = sortearChave(rand, semAlocacao);
+                
+                // get() é lock-free: só leituras voláteis, sem contador de leitores
+                String valor = bancoConcorrente.get(chave);
+                
+                // Simular processamento da leitura
+                if (valor != null && valor.length() > 0) {
+                    // Trabalho trivial
+                }
+            }
+        }
+    }
+    
+    /**
+     * Escritor SEM LOCK global: put() trava apenas o bin da chave
+     */
+    static class EscritorConcorrente implements Runnable {
+        private final int id;
+        private final int numAtualizacoes;
+        
+        public EscritorConcorrente(int id, int numAtualizacoes) {
+            this.id = id;
+            this.numAtualizacoes = numAtualizacoes;
+        }
+        
+        @Override
+        public void run() {
+            Random rand = new Random(id + 1000);
+            boolean semAlocacao = prealocado;
+            boolean comPausa = pausaEscritores;
+            
+            for (int i = 0; i < numAtualizacoes; i++) {
+                String chave = sortearChave(rand, semAlocacao);
+                String valor = gerarValor(id, i, semAlocacao);
+                
+                bancoConcorrente.put(chave, valor);
+                
+                // Simular trabalho adicional (desligado nas varreduras de locks)
+                if (comPausa) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Leitor com StampedLock: tenta leitura otimista e valida o stamp;
+     * se um escritor interferiu, tenta de novo e por fim usa read lock.
+     * 
+     * Seguro sobre o HashMap porque as chaves são fixas (inicializarBanco):
+     * escritores só substituem valores, nunca alteram a estrutura do mapa.
+     */
+    static class LeitorStamped implements Runnable {
+        private final int id;
+        private final int numConsultas;
+        
+        public LeitorStamped(int id, int numConsultas) {
+            this.id = id;
+            this.numConsultas = numConsultas;
+        }
+        
+        @Override
+        public void run() {
+            Random rand = new Random(id);
+            boolean semAlocacao = prealocado;
+            long[] metricas = new long[3];
+            
+            for (int i = 0; i < numConsultas; i++) {
+                String chave = sortearChave(rand, semAlocacao);
+                String valor = lerStamped(chave, metricas);
+                
+                // Simular processamento da leitura
+                if (valor != null && valor.length() > 0) {
+                    // Trabalho trivial
+                }
+            }
+            
+            acumularMetricasStamped(metricas);
+        }
+    }
+    
+    /**
+     * Leitura otimista com fallback para read lock. metricas (local da
+     * thread): [0] otimistas OK, [1] falhas de validação, [2] fallbacks
+     */
+    static String lerStamped(String chave, long[] metricas) {
+        for (int tentativa = 0; tentativa < MAX_TENTATIVAS_OTIMISTAS; tentativa++) {
+            long stamp = stampedLock.tryOptimisticRead(); // 0 se há escritor
+            String valor = bancoDados.get(chave);
+            if (stampedLock.validate(stamp)) {
+                metricas[0]++;
+                return valor;
+            }
+            metricas[1]++;
+        }
+        
+        // Fallback: read lock pessimista
+        long stamp = stampedLock.readLock();
+        try {
+            metricas[2]++;
+            return bancoDados.get(chave);
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+    
+    static void acumularMetricasStamped(long[] metricas) {
+        otimistasOk.addAndGet(metricas[0]);
+        falhasValidacao.addAndGet(metricas[1]);
+        fallbacksLeitura.addAndGet(metricas[2]);
+    }
+    
+    /**
+     * Escritor com StampedLock: write lock exclusivo (invalida stamps otimistas)
+     */
+    static class EscritorStamped implements Runnable {
+        private final int id;
+        private final int numAtualizacoes;
+        
+        public EscritorStamped(int id, int numAtualizacoes) {
+            this.id = id;
+            this.numAtualizacoes = numAtualizacoes;
+        }
+        
+        @Override
+        public void run() {
+            Random rand = new Random(id + 1000);
+            boolean semAlocacao = prealocado;
+            boolean comPausa = pausaEscritores;
+            
+            for (int i = 0; i < numAtualizacoes; i++) {
+                String chave = sortearChave(rand, semAlocacao);
+                String valor = gerarValor(id, i, semAlocacao);
+                
+                long stamp = stampedLock.writeLock();
                 try {
-                    Thread.sleep(1);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                    bancoDados.put(chave, valor);
+                } finally {
+                    stampedLock.unlockWrite(stamp);
+                }
+                
+                // Simular trabalho adicional (desligado nas varreduras de locks)
+                if (comPausa) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Thread de carga mista, sem pausas: cada operação é uma escrita com
+     * probabilidade fracaoEscrita, senão uma leitura. Todas as threads
+     * escrevem a plena velocidade, então a fração É a taxa de escrita.
+     */
+    static class OperadorMisto implements Runnable {
+        private final int id;
+        private final int numOperacoes;
+        private final double fracaoEscrita;
+        private final boolean stamped;
+        
+        public OperadorMisto(int id, int numOperacoes, double fracaoEscrita, boolean stamped) {
+            this.id = id;
+            this.numOperacoes = numOperacoes;
+            this.fracaoEscrita = fracaoEscrita;
+            this.stamped = stamped;
+        }
+        
+        @Override
+        public void run() {
+            Random rand = new Random(id);
+            long[] metricas = new long[3];
+            
+            for (int i = 0; i < numOperacoes; i++) {
+                // Chaves e valores pré-alocados: mede só o custo dos locks
+                String chave = sortearChave(rand, true);
+                
+                if (rand.nextDouble() < fracaoEscrita) {
+                    String valor = gerarValor(id, i, true);
+                    if (stamped) {
+                        long stamp = stampedLock.writeLock();
+                        try {
+                            bancoDados.put(chave, valor);
+                        } finally {
+                            stampedLock.unlockWrite(stamp);
+                        }
+                    } else {
+                        rwLock.writeLock().lock();
+                        try {
+                            bancoDados.put(chave, valor);
+                        } finally {
+                            rwLock.writeLock().unlock();
+                        }
+                    }
+                } else {
+                    String valor;
+                    if (stamped) {
+                        valor = lerStamped(chave, metricas);
+                    } else {
+                        rwLock.readLock().lock();
+                        try {
+                            valor = bancoDados.get(chave);
+                        } finally {
+                            rwLock.readLock().unlock();
+                        }
+                    }
+                    
+                    // Simular processamento da leitura
+                    if (valor != null && valor.length() > 0) {
+                        // Trabalho trivial
+                    }
+                }
+            }
+            
+            if (stamped) {
+                acumularMetricasStamped(metricas);
+            }
+        }
+    }
+    
+    /**
+     * Leitor sobre o banco fragmentado
+     */
+    static class LeitorFragmentado implements Runnable {
+        private final int id;
+        private final int numConsultas;
+        private final BancoFragmentado banco;
+        private final String[] chaves;
+        private final GeradorChaves gerador;
+        
+        public LeitorFragmentado(int id, int numConsultas, BancoFragmentado banco,
+                                String[] chaves, GeradorChaves gerador) {
+            this.id = id;
+            this.numConsultas = numConsultas;
+            this.banco = banco;
+            this.chaves = chaves;
+            this.gerador = gerador;
+        }
+        
+        @Override
+        public void run() {
+            Random rand = new Random(id);
+            
+            for (int i = 0; i < numConsultas; i++) {
+                String valor = banco.ler(chaves[gerador.proxima(rand)]);
+                
+                // Simular processamento da leitura
+                if (valor != null && valor.length() > 0) {
+                    // Trabalho trivial
                 }
             }
         }
     }
     
+    /**
+     * Escritor sobre o banco fragmentado (escritas contínuas, sem sleep,
+     * para expor a contenção em cada fragmento)
+     */
+    static class EscritorFragmentado implements Runnable {
+        private final int id;
+        private final int numAtualizacoes;
+        private final BancoFragmentado banco;
+        private final String[] chaves;
+        private final GeradorChaves gerador;
+        
+        public EscritorFragmentado(int id, int numAtualizacoes, BancoFragmentado banco,
+                                  String[] chaves, GeradorChaves gerador) {
+            this.id = id;
+            this.numAtualizacoes = numAtualizacoes;
+            this.banco = banco;
+            this.chaves = chaves;
+            this.gerador = gerador;
+        }
+        
+        @Override
+        public void run() {
+            Random rand = new Random(id + 1000);
+            
+            for (int i = 0; i < numAtualizacoes; i++) {
+                String chave = chaves[gerador.proxima(rand)];
+                String valor = "valor_" + id + "_" + i;
+                banco.escrever(chave, valor);
+            }
+        }
+    }
+    
+    /**
+     * Sorteia uma chave: concatena (aloca) ou usa a tabela pré-construída
+     */
+    static String sortearChave(Random rand, boolean semAlocacao) {
+        int k = rand.nextInt(10);
+        return semAlocacao ? CHAVES[k] : "chave" + k;
+    }
+    
+    /**
+     * Gera o valor a escrever: concatena (aloca) ou reutiliza um valor do pool
+     */
+    static String gerarValor(int id, int i, boolean semAlocacao) {
+        if (semAlocacao) {
+            return VALORES_POOL[(id * 31 + i) & (VALORES_POOL.length - 1)];
+        }
+        return "valor_" + id + "_" + i;
+    }
+    
+    /**
+     * Envolve um Runnable contando os bytes que a thread aloca durante run()
+     */
+    static Runnable contandoAlocacao(Runnable tarefa) {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) {
+            return tarefa; // JVM sem suporte: não mede
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) mx;
+        return () -> {
+            long id = Thread.currentThread().getId();
+            long antes = bean.getThreadAllocatedBytes(id);
+            tarefa.run();
+            bytesAlocados.addAndGet(bean.getThreadAllocatedBytes(id) - antes);
+        };
+    }
+    
     public static void main(String[] args) {
         System.out.println("=== Atividade 12 - Leitores-Escritores ===\n");
         
@@ -129,15 +611,23 @@ public class LeitoresEscritores {
         // Inicializar banco de dados
         inicializarBanco();
         
-        System.out.println("Comparando ReadWriteLock vs Lock Simples:\n");
+        System.out.println("Comparando ReadWriteLock vs Lock Simples vs Mapa Concorrente vs StampedLock:\n");
         
         // Teste com ReadWriteLock
         long tempoRWLock = testar(numLeitores, numEscritores, 
-                                  consultasPorLeitor, atualizacoesPorEscritor, true);
+                                  consultasPorLeitor, atualizacoesPorEscritor, "rwlock");
         
         // Teste com lock simples
         long tempoSimples = testar(numLeitores, numEscritores,
-                                   consultasPorLeitor, atualizacoesPorEscritor, false);
+                                   consultasPorLeitor, atualizacoesPorEscritor, "simples");
+        
+        // Teste sem lock global (ConcurrentHashMap)
+        long tempoConcorrente = testar(numLeitores, numEscritores,
+                                       consultasPorLeitor, atualizacoesPorEscritor, "concorrente");
+        
+        // Teste com StampedLock (leitura otimista)
+        long tempoStamped = testar(numLeitores, numEscritores,
+                                   consultasPorLeitor, atualizacoesPorEscritor, "stamped");
         
         double speedup = (double) tempoSimples / tempoRWLock;
         double melhoria = ((double) (tempoSimples - tempoRWLock) / tempoSimples) * 100;
@@ -146,10 +636,119 @@ public class LeitoresEscritores {
         System.out.println("|----------------|------------|");
         System.out.printf("| ReadWriteLock  | %10d |\n", tempoRWLock);
         System.out.printf("| Lock Simples   | %10d |\n", tempoSimples);
+        System.out.printf("| Concorrente    | %10d |\n", tempoConcorrente);
+        System.out.printf("| StampedLock    | %10d |\n", tempoStamped);
         System.out.println();
         System.out.printf("Speedup: %.2fx\n", speedup);
         System.out.printf("Melhoria: %.1f%%\n", melhoria);
         
+        // Varredura da razão leitura:escrita: escritores ocupados (sem o sleep
+        // de 1 ms, que sozinho custaria ~50 ms por célula) e sem alocação, com
+        // o total de operações fixo; só a razão muda de uma linha para outra
+        int[] razoes = {1, 10, 100, 1000, 10000};
+        long operacoesVarredura = 2_000_000L;
+        
+        System.out.println("\nVariando a razão leitura:escrita (escritores ocupados, " +
+                         operacoesVarredura + " ops no total):\n");
+        System.out.println("| Leitura:Escrita | RWLock (ns/op) | Simples (ns/op) | Concorrente (ns/op) | Stamped (ns/op) |");
+        System.out.println("|-----------------|----------------|-----------------|---------------------|-----------------|");
+        
+        pausaEscritores = false;
+        prealocado = true;
+        for (int razao : razoes) {
+            int atualizacoes = (int) (operacoesVarredura / (razao + 1) / numEscritores);
+            int consultas = (int) ((long) razao * atualizacoes * numEscritores / numLeitores);
+            long ops = (long) consultas * numLeitores + (long) atualizacoes * numEscritores;
+            double nsRW = medirNs(numLeitores, numEscritores, consultas, atualizacoes, "rwlock", ops);
+            double nsSimples = medirNs(numLeitores, numEscritores, consultas, atualizacoes, "simples", ops);
+            double nsConc = medirNs(numLeitores, numEscritores, consultas, atualizacoes, "concorrente", ops);
+            double nsStamped = medirNs(numLeitores, numEscritores, consultas, atualizacoes, "stamped", ops);
+            
+            System.out.printf("| %13d:1 | %14.1f | %15.1f | %19.1f | %15.1f |\n",
+                            razao, nsRW, nsSimples, nsConc, nsStamped);
+        }
+        pausaEscritores = true;
+        prealocado = false;
+        
+        // Efeito da taxa de escrita sobre a leitura otimista: threads ocupadas
+        // (sem sleep) com frações crescentes de escrita
+        int threadsMistas = numLeitores + numEscritores;
+        int operacoesMistas = 200_000;
+        System.out.println("\nStampedLock vs RWLock por fração de escritas (" + threadsMistas +
+                         " threads ocupadas, " + operacoesMistas + " ops/thread):\n");
+        System.out.println("| Escritas | Otimista OK | Falhas validação | Fallbacks | Acerto | Stamped (ns/op) | RWLock (ns/op) |");
+        System.out.println("|----------|-------------|------------------|-----------|--------|-----------------|----------------|");
+        
+        for (double fracao : new double[]{0.0, 0.001, 0.01, 0.05, 0.1, 0.25, 0.5}) {
+            long opsMistas = (long) threadsMistas * operacoesMistas;
+            double nsStamped = Medidor.medir(() -> {
+                inicializarBanco();
+                resetMetricasStamped();
+            }, () -> {
+                executarMisto(threadsMistas, operacoesMistas, fracao, true);
+                return 0;
+            }).mediaMs() * 1e6 / opsMistas;
+            long ok = otimistasOk.get(); // Métricas da última medição
+            long falhas = falhasValidacao.get();
+            long fallbacks = fallbacksLeitura.get();
+            
+            double nsRWLock = Medidor.medir(LeitoresEscritores::inicializarBanco, () -> {
+                executarMisto(threadsMistas, operacoesMistas, fracao, false);
+                return 0;
+            }).mediaMs() * 1e6 / opsMistas;
+            
+            System.out.printf("| %7.1f%% | %11d | %16d | %9d | %5.1f%% | %15.1f | %14.1f |\n",
+                            100 * fracao, ok, falhas, fallbacks,
+                            100.0 * ok / Math.max(1, ok + fallbacks), nsStamped, nsRWLock);
+        }
+        
+        // Banco fragmentado: escala com o número de fragmentos e com a distribuição das chaves
+        String[] chaves = gerarChaves(NUM_CHAVES_FRAGMENTADO);
+        GeradorChaves uniforme = new GeradorChaves(NUM_CHAVES_FRAGMENTADO, false, 0);
+        GeradorChaves zipf = new GeradorChaves(NUM_CHAVES_FRAGMENTADO, true, 0.99);
+        int consultasFragmentado = 200_000;
+        int atualizacoesFragmentado = 20_000;
+        
+        System.out.println("\nBanco fragmentado (" + NUM_CHAVES_FRAGMENTADO + " chaves, " +
+                         consultasFragmentado + " consultas/leitor, " +
+                         atualizacoesFragmentado + " escritas/escritor):\n");
+        System.out.println("| Fragmentos | Uniforme (ms) | Zipf s=0.99 (ms) |");
+        System.out.println("|------------|---------------|------------------|");
+        
+        for (int numFragmentos : new int[]{1, 2, 4, 8, 16, 64}) {
+            long tUniforme = medirFragmentado(numLeitores, numEscritores, consultasFragmentado,
+                                              atualizacoesFragmentado, numFragmentos, chaves, uniforme);
+            long tZipf = medirFragmentado(numLeitores, numEscritores, consultasFragmentado,
+                                          atualizacoesFragmentado, numFragmentos, chaves, zipf);
+            
+            System.out.printf("| %10d | %13d | %16d |\n", numFragmentos, tUniforme, tZipf);
+        }
+        
+        // Custo de alocação no laço quente: concatenação vs chaves/valores pré-alocados
+        System.out.println("\nAlocação no laço quente (concatenação vs pré-alocado):\n");
+        System.out.println("| Abordagem   | Alocando (ms) | B/op | Pré-alocado (ms) | B/op |");
+        System.out.println("|-------------|---------------|------|------------------|------|");
+        
+        long opsTotais = (long) numLeitores * consultasPorLeitor * 10 + 
+                         (long) numEscritores * atualizacoesPorEscritor;
+        for (String tipo : new String[]{"rwlock", "simples", "concorrente", "stamped"}) {
+            prealocado = false;
+            long tAlocando = medir(numLeitores, numEscritores, consultasPorLeitor * 10, 
+                                   atualizacoesPorEscritor, tipo);
+            double bAlocando = bytesPorOperacao(numLeitores, numEscritores, consultasPorLeitor * 10,
+                                                atualizacoesPorEscritor, tipo, opsTotais);
+            
+            prealocado = true;
+            long tPrealocado = medir(numLeitores, numEscritores, consultasPorLeitor * 10,
+                                     atualizacoesPorEscritor, tipo);
+            double bPrealocado = bytesPorOperacao(numLeitores, numEscritores, consultasPorLeitor * 10,
+                                                  atualizacoesPorEscritor, tipo, opsTotais);
+            prealocado = false;
+            
+            System.out.printf("| %-11s | %13d | %4.0f | %16d | %4.0f |\n",
+                            tipo, tAlocando, bAlocando, tPrealocado, bPrealocado);
+        }
+        
         System.out.println("\n--- POR QUE LEITORES-ESCRITORES ESCALA MELHOR ---");
         System.out.println();
         System.out.println("LOCK SIMPLES (synchronized):");
@@ -180,6 +779,37 @@ public class LeitoresEscritores {
         System.out.println("- Write lock: exclusivo, bloqueia tudo");
         System.out.println("- Fairness: pode priorizar leitores ou escritores");
         System.out.println("- Overhead: maior que lock simples");
+        System.out.println("- Todo read lock ainda faz CAS no contador compartilhado de leitores");
+        System.out.println("- Na varredura leitura:escrita os escritores não dormem: com o sleep");
+        System.out.println("  de 1 ms por escrita, toda célula mediria o agendador, não o lock");
+        System.out.println();
+        System.out.println("MAPA CONCORRENTE (ConcurrentHashMap):");
+        System.out.println("- get() é lock-free: apenas leituras voláteis, nenhuma escrita");
+        System.out.println("- Leitores não disputam linha de cache entre si");
+        System.out.println("- put() trava só o bin da chave, não o mapa inteiro");
+        System.out.println("- Quanto maior a razão leitura:escrita, maior a vantagem");
+        System.out.println();
+        System.out.println("STAMPEDLOCK (leitura otimista):");
+        System.out.println("- tryOptimisticRead() só lê o estado do lock: nenhum CAS");
+        System.out.println("- validate() confirma que nenhum escritor entrou no meio");
+        System.out.println("- Falhou? Tenta de novo e, por fim, usa read lock (fallback)");
+        System.out.println("- Mais escritas → mais falhas de validação → mais fallbacks");
+        System.out.println("- Com escritas raras o otimista evita o CAS do read lock; quando a");
+        System.out.println("  fração de escritas cresce, as revalidações e fallbacks o aproximam");
+        System.out.println("  (ou o deixam pior) que o RWLock");
+        System.out.println("- Com 1 core disponível leitor e escritor raramente se sobrepõem:");
+        System.out.println("  o acerto fica perto de 100% em qualquer fração");
+        System.out.println();
+        System.out.println("BANCO FRAGMENTADO (lock por fragmento):");
+        System.out.println("- Escrita em uma chave só bloqueia o fragmento dela");
+        System.out.println("- Mais fragmentos → menos contenção (até o nº de cores)");
+        System.out.println("- Com Zipf, as chaves quentes concentram acessos em poucos");
+        System.out.println("  fragmentos: fragmentar ajuda menos que no caso uniforme");
+        System.out.println();
+        System.out.println("ALOCAÇÃO NO LAÇO QUENTE:");
+        System.out.println("- \"chave\" + n aloca um StringBuilder e uma String por consulta");
+        System.out.println("- Com leituras baratas, o custo de alocação/GC supera o do lock");
+        System.out.println("- Tabela de chaves + pool de valores: ~0 B/op, compara só os locks");
         System.out.println();
         System.out.println("NESTE TESTE:");
         System.out.println("Razão leitura:escrita = " + 
@@ -193,56 +823,145 @@ public class LeitoresEscritores {
      */
     static void inicializarBanco() {
         bancoDados.clear();
+        bancoConcorrente.clear();
         for (int i = 0; i < 10; i++) {
             bancoDados.put("chave" + i, "valor_inicial_" + i);
+            bancoConcorrente.put("chave" + i, "valor_inicial_" + i);
+        }
+    }
+    
+    /**
+     * Gera a tabela de chaves "chave0".."chaveN-1" (criada uma vez, fora do tempo medido)
+     */
+    static String[] gerarChaves(int numChaves) {
+        String[] chaves = new String[numChaves];
+        for (int i = 0; i < numChaves; i++) {
+            chaves[i] = "chave" + i;
         }
+        return chaves;
+    }
+    
+    /**
+     * Gera um pool de valores reutilizáveis (tamanho potência de 2)
+     */
+    static String[] gerarValoresPool(int tamanho) {
+        String[] valores = new String[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            valores[i] = "valor_pool_" + i;
+        }
+        return valores;
+    }
+    
+    /**
+     * Executa uma bateria e devolve os bytes alocados por operação
+     */
+    static double bytesPorOperacao(int numLeitores, int numEscritores, int consultas,
+                                  int atualizacoes, String tipo, long ops) {
+        inicializarBanco();
+        bytesAlocados.set(0);
+        executar(numLeitores, numEscritores, consultas, atualizacoes, tipo);
+        return (double) bytesAlocados.get() / ops;
+    }
+    
+    /**
+     * Zera as métricas da leitura otimista
+     */
+    static void resetMetricasStamped() {
+        otimistasOk.set(0);
+        falhasValidacao.set(0);
+        fallbacksLeitura.set(0);
     }
     
     /**
      * Executa teste com a abordagem especificada
      */
     static long testar(int numLeitores, int numEscritores, 
-                      int consultas, int atualizacoes, boolean usarRWLock) {
+                      int consultas, int atualizacoes, String tipo) {
         
-        String tipo = usarRWLock ? "ReadWriteLock" : "Lock Simples";
         System.out.println("Testando com " + tipo + "...");
         
-        // Aquecimento
-        executar(numLeitores, numEscritores, consultas / 10, atualizacoes / 10, usarRWLock);
-        
-        // Medir 3 vezes
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            inicializarBanco();
-            long inicio = System.nanoTime();
-            executar(numLeitores, numEscritores, consultas, atualizacoes, usarRWLock);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
-        
-        long media = (tempos[0] + tempos[1] + tempos[2]) / 3;
+        long media = medir(numLeitores, numEscritores, consultas, atualizacoes, tipo);
         System.out.println(tipo + " concluído: " + media + " ms");
         
         return media;
     }
     
+    /**
+     * Mede (sem logs) o tempo médio de uma abordagem
+     */
+    static long medir(int numLeitores, int numEscritores,
+                     int consultas, int atualizacoes, String tipo) {
+        // Aquecimento (carga reduzida)
+        executar(numLeitores, numEscritores, consultas / 10, atualizacoes / 10, tipo);
+        
+        // Medições padrão do Medidor (banco reinicializado fora do tempo medido)
+        Medidor.Resultado r = Medidor.medir(0, Medidor.MEDICOES_PADRAO, LeitoresEscritores::inicializarBanco, () -> {
+            executar(numLeitores, numEscritores, consultas, atualizacoes, tipo);
+            return 0;
+        });
+        
+        return Math.round(r.mediaMs());
+    }
+    
+    /**
+     * Tempo médio por operação (ns), com as medições padrão do Medidor
+     */
+    static double medirNs(int numLeitores, int numEscritores,
+                          int consultas, int atualizacoes, String tipo, long operacoes) {
+        Medidor.Resultado r = Medidor.medir(LeitoresEscritores::inicializarBanco, () -> {
+            executar(numLeitores, numEscritores, consultas, atualizacoes, tipo);
+            return 0;
+        });
+        return r.mediaMs() * 1e6 / operacoes;
+    }
+    
     /**
      * Executa uma bateria de leitores e escritores
      */
     static void executar(int numLeitores, int numEscritores,
-                        int consultas, int atualizacoes, boolean usarRWLock) {
+                        int consultas, int atualizacoes, String tipo) {
         
         Thread[] threads = new Thread[numLeitores + numEscritores];
         
         // Criar leitores
         for (int i = 0; i < numLeitores; i++) {
-            threads[i] = new Thread(new Leitor(i, consultas, usarRWLock));
+            switch (tipo) {
+                case "rwlock":
+                    threads[i] = new Thread(contandoAlocacao(new Leitor(i, consultas, true)));
+                    break;
+                case "simples":
+                    threads[i] = new Thread(contandoAlocacao(new Leitor(i, consultas, false)));
+                    break;
+                case "concorrente":
+                    threads[i] = new Thread(contandoAlocacao(new LeitorConcorrente(i, consultas)));
+                    break;
+                case "stamped":
+                    threads[i] = new Thread(contandoAlocacao(new LeitorStamped(i, consultas)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo desconhecido: " + tipo);
+            }
             threads[i].start();
         }
         
         // Criar escritores
         for (int i = 0; i < numEscritores; i++) {
-            threads[numLeitores + i] = new Thread(new Escritor(i, atualizacoes, usarRWLock));
+            switch (tipo) {
+                case "rwlock":
+                    threads[numLeitores + i] = new Thread(contandoAlocacao(new Escritor(i, atualizacoes, true)));
+                    break;
+                case "simples":
+                    threads[numLeitores + i] = new Thread(contandoAlocacao(new Escritor(i, atualizacoes, false)));
+                    break;
+                case "concorrente":
+                    threads[numLeitores + i] = new Thread(contandoAlocacao(new EscritorConcorrente(i, atualizacoes)));
+                    break;
+                case "stamped":
+                    threads[numLeitores + i] = new Thread(contandoAlocacao(new EscritorStamped(i, atualizacoes)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo desconhecido: " + tipo);
+            }
             threads[numLeitores + i].start();
         }
         
@@ -255,4 +974,70 @@ public class LeitoresEscritores {
             }
         }
     }
-}
+    
+    /**
+     * Executa threads de carga mista (ver OperadorMisto)
+     */
+    static void executarMisto(int numThreads, int operacoes, double fracaoEscrita, boolean stamped) {
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            threads[i] = new Thread(new OperadorMisto(i, operacoes, fracaoEscrita, stamped));
+            threads[i].start();
+        }
+        
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Mede (média das medições padrão) leitores e escritores sobre um banco fragmentado novo
+     */
+    static long medirFragmentado(int numLeitores, int numEscritores, int consultas, int atualizacoes,
+                                int numFragmentos, String[] chaves, GeradorChaves gerador) {
+        BancoFragmentado banco = new BancoFragmentado(numFragmentos);
+        for (int i = 0; i < chaves.length; i++) {
+            banco.escrever(chaves[i], "valor_inicial_" + i);
+        }
+        
+        Medidor.Resultado r = Medidor.medir(() -> {
+            executarFragmentado(numLeitores, numEscritores, consultas, atualizacoes,
+                                banco, chaves, gerador);
+            return 0;
+        });
+        
+        return Math.round(r.mediaMs());
+    }
+    
+    /**
+     * Executa uma bateria de leitores e escritores sobre o banco fragmentado
+     */
+    static void executarFragmentado(int numLeitores, int numEscritores, int consultas, int atualizacoes,
+                                   BancoFragmentado banco, String[] chaves, GeradorChaves gerador) {
+        
+        Thread[] threads = new Thread[numLeitores + numEscritores];
+        
+        for (int i = 0; i < numLeitores; i++) {
+            threads[i] = new Thread(new LeitorFragmentado(i, consultas, banco, chaves, gerador));
+            threads[i].start();
+        }
+        
+        for (int i = 0; i < numEscritores; i++) {
+            threads[numLeitores + i] = new Thread(
+                    new EscritorFragmentado(i, atualizacoes, banco, chaves, gerador));
+            threads[numLeitores + i].start();
+        }
+        
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
\ No newline at end of file
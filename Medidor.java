@@ -0,0 +1,221 @@
+import java.util.Arrays;
+
+/**
+ * Utilitário - Harness de medição compartilhado pelas atividades
+ * Objetivo: Aquecer o JIT, repetir medições, consumir resultados (evita
+ * eliminação de código morto) e reportar vazão e latência p50/p99
+ */
+public class Medidor {
+
+    // Sumidouro: resultados são "consumidos" aqui para o JIT não descartá-los
+    private static volatile long sumidouro;
+
+    // Repetições das tabelas de cada atividade (cargas pesadas: poucas
+    // repetições, mas o suficiente para a média não ser uma amostra só)
+    static final int AQUECIMENTOS_PADRAO = Integer.getInteger("medidor.aquecimentos", 2);
+    static final int MEDICOES_PADRAO = Integer.getInteger("medidor.medicoes", 10);
+
+    /**
+     * Carga de trabalho medida: devolve um valor que será consumido
+     */
+    interface Tarefa {
+        long executar();
+    }
+
+    /**
+     * Amostras de tempo (ns) de cada execução medida
+     */
+    static class Resultado {
+        private final long[] amostrasNs;
+        private final long[] ordenadas;
+
+        public Resultado(long[] amostrasNs) {
+            this.amostrasNs = amostrasNs;
+            this.ordenadas = amostrasNs.clone();
+            Arrays.sort(ordenadas);
+        }
+
+        public int numAmostras() {
+            return amostrasNs.length;
+        }
+
+        public double mediaMs() {
+            long soma = 0;
+            for (long t : amostrasNs) {
+                soma += t;
+            }
+            return soma / (double) amostrasNs.length / 1_000_000.0;
+        }
+
+        /**
+         * Percentil por posição (nearest-rank), em ms
+         */
+        public double percentilMs(double p) {
+            int posicao = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+            posicao = Math.max(0, Math.min(ordenadas.length - 1, posicao));
+            return ordenadas[posicao] / 1_000_000.0;
+        }
+
+        /**
+         * O percentil p só difere do máximo com pelo menos 100/(100-p)
+         * amostras (p99: 100 medições)
+         */
+        public boolean percentilSignificativo(double p) {
+            return p < 100 && ordenadas.length >= Math.ceil(100.0 / (100.0 - p) - 1e-9);
+        }
+
+        /**
+         * Vazão em operações por segundo, dado o número de operações por execução
+         */
+        public double opsPorSegundo(long opsPorExecucao) {
+            return opsPorExecucao / (mediaMs() / 1000.0);
+        }
+    }
+
+    /**
+     * Mede a tarefa com as repetições padrão das tabelas
+     */
+    static Resultado medir(Tarefa tarefa) {
+        return medir(AQUECIMENTOS_PADRAO, MEDICOES_PADRAO, null, tarefa);
+    }
+
+    /**
+     * Mede a tarefa com as repetições padrão; 'preparar' fica fora do tempo medido
+     */
+    static Resultado medir(Runnable preparar, Tarefa tarefa) {
+        return medir(AQUECIMENTOS_PADRAO, MEDICOES_PADRAO, preparar, tarefa);
+    }
+
+    /**
+     * Mede a tarefa com o número de aquecimentos e medições indicados
+     */
+    static Resultado medir(int aquecimentos, int medicoes, Tarefa tarefa) {
+        return medir(aquecimentos, medicoes, null, tarefa);
+    }
+
+    /**
+     * Mede a tarefa; 'preparar' roda antes de cada execução, fora do tempo medido
+     */
+    static Resultado medir(int aquecimentos, int medicoes, Runnable preparar, Tarefa tarefa) {
+        long acumulado = 0;
+
+        // Aquecimento (JIT compila os caminhos quentes)
+        for (int i = 0; i < aquecimentos; i++) {
+            if (preparar != null) preparar.run();
+            acumulado += tarefa.executar();
+        }
+
+        long[] amostras = new long[medicoes];
+        for (int i = 0; i < medicoes; i++) {
+            if (preparar != null) preparar.run();
+            long inicio = System.nanoTime();
+            acumulado += tarefa.executar();
+            amostras[i] = System.nanoTime() - inicio;
+        }
+
+        sumidouro += acumulado;
+        return new Resultado(amostras);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== Medidor - Benchmarks das Atividades ===\n");
+
+        // Uso: java Medidor [carga|todas] [threads,separadas,por,virgula] [tamanho]
+        String carga = args.length > 0 ? args[0] : "todas";
+        int[] numThreadsArray = args.length > 1 ? lerLista(args[1]) : new int[]{1, 2, 4, 8};
+        long tamanho = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int aquecimentos = Integer.getInteger("medidor.aquecimentos", 5);
+        // 100 medições: o mínimo para o p99 não ser simplesmente o máximo
+        int medicoes = Integer.getInteger("medidor.medicoes", 100);
+
+        System.out.println("Configuração:");
+        System.out.println("- Carga: " + carga);
+        System.out.println("- Threads: " + Arrays.toString(numThreadsArray));
+        System.out.println("- Aquecimentos: " + aquecimentos + " | Medições: " + medicoes);
+        System.out.println("  (ajuste com -Dmedidor.aquecimentos=N -Dmedidor.medicoes=N)");
+        if (medicoes < 100) {
+            System.out.println("  p99 omitido (n/d): exige pelo menos 100 medições");
+        }
+        System.out.println();
+
+        System.out.println("| Carga            | Threads |      Tamanho |     Ops/s | p50 (ms) | p99 (ms) |");
+        System.out.println("|------------------|---------|--------------|-----------|----------|----------|");
+
+        for (int T : numThreadsArray) {
+            if (carga.equals("todas") || carga.equals("soma")) {
+                long n = tamanho > 0 ? tamanho : 10_000_000L;
+                int[] vetor = SomaParalela.gerarVetor(tamanhoInt(n, "soma"));
+                Resultado r = medir(aquecimentos, medicoes, () -> SomaParalela.somaParalela(vetor, T));
+                imprimirLinha("soma", T, n, r.opsPorSegundo(n), r);
+            }
+            if (carga.equals("todas") || carga.equals("montecarlo")) {
+                long n = tamanho > 0 ? tamanho : 1_000_000L;
+                Resultado r = medir(aquecimentos, medicoes,
+                        () -> Double.doubleToLongBits(MonteCarlo.estimarPi(T, n)));
+                imprimirLinha("montecarlo", T, n, r.opsPorSegundo(n * T), r);
+            }
+            if (carga.equals("todas") || carga.equals("pool")) {
+                long n = tamanho > 0 ? tamanho : 1_000_000L;
+                int[] dados = SomaParalela.gerarVetor(tamanhoInt(n, "pool"));
+                Resultado r = medir(aquecimentos, medicoes, () -> ThreadPool.executarComPool(dados, 100, T));
+                imprimirLinha("pool", T, n, r.opsPorSegundo(n), r);
+            }
+            if (carga.equals("todas") || carga.equals("atomico")) {
+                long n = tamanho > 0 ? tamanho : 1_000_000L;
+                int incrementos = tamanhoInt(n, "atomico");
+                Resultado r = medir(aquecimentos, medicoes, () -> {
+                    Atomico.executar(T, incrementos, "atomico");
+                    return 0;
+                });
+                imprimirLinha("atomico", T, n, r.opsPorSegundo(n * T), r);
+            }
+            if (carga.equals("todas") || carga.equals("leitores")) {
+                long n = tamanho > 0 ? tamanho : 1_000L;
+                int consultas = tamanhoInt(n, "leitores");
+                Resultado r = medir(aquecimentos, medicoes, LeitoresEscritores::inicializarBanco, () -> {
+                    LeitoresEscritores.executar(T, 2, consultas, 5, "rwlock");
+                    return 0;
+                });
+                imprimirLinha("leitores", T, n, r.opsPorSegundo(n * T + 10), r);
+            }
+            if (carga.equals("todas") || carga.equals("granularidade")) {
+                long n = tamanho > 0 ? tamanho : 1_000_000L;
+                int incrementos = tamanhoInt(n, "granularidade");
+                Resultado r = medir(aquecimentos, medicoes, () -> {
+                    Granularidade.executarGranularidade(T, incrementos, "bloco", 1000);
+                    return 0;
+                });
+                imprimirLinha("granularidade", T, n, r.opsPorSegundo(n * T), r);
+            }
+        }
+
+        System.out.println("\nOps/s = elementos (ou incrementos/consultas) processados por segundo.");
+        System.out.println("p50/p99 = latência de uma execução completa da carga.");
+    }
+
+    static void imprimirLinha(String carga, int T, long tamanho, double ops, Resultado r) {
+        String p99 = r.percentilSignificativo(99) ? String.format("%8.2f", r.percentilMs(99)) : "     n/d";
+        System.out.printf("| %-16s | %7d | %12d | %9.3g | %8.2f | %s |\n",
+                        carga, T, tamanho, ops, r.percentilMs(50), p99);
+    }
+
+    /**
+     * Cargas indexadas por int: rejeita tamanhos que estourariam o cast
+     */
+    static int tamanhoInt(long tamanho, String carga) {
+        if (tamanho > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho " + tamanho + " excede o limite de '"
+                                               + carga + "' (" + Integer.MAX_VALUE + ")");
+        }
+        return (int) tamanho;
+    }
+
+    static int[] lerLista(String csv) {
+        String[] partes = csv.split(",");
+        int[] valores = new int[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            valores[i] = Integer.parseInt(partes[i].trim());
+        }
+        return valores;
+    }
+}
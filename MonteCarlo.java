@@ -1,4 +1,7 @@
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Atividade 10 - Estimativa de π (Monte Carlo)
@@ -6,46 +9,546 @@ import java.util.Random;
  */
 public class MonteCarlo {
     
+    // Geradores disponíveis (ajuste o padrão com -Dmontecarlo.gerador=...)
+    static final String[] GERADORES = {"random", "splittable", "threadlocal", "xoshiro"};
+    static final String GERADOR_PADRAO = System.getProperty("montecarlo.gerador", "splittable");
+    
+    // Motores: "escalar" (sqrt e if por ponto) ou "lote" (blocos, sem sqrt nem desvio)
+    static final String[] MOTORES = {"escalar", "lote"};
+    static final String MOTOR_PADRAO = System.getProperty("montecarlo.motor", "lote");
+    
+    // Domínio da instância π: [0,1]², onde o círculo ocupa π/4
+    static final IntegradorMonteCarlo QUADRADO_UNITARIO = IntegradorMonteCarlo.cuboUnitario(2);
+    
+    // Pontos gerados por bloco no motor em lote (2 × 8 KB, cabe no L1)
+    static final int TAMANHO_BLOCO = 1024;
+    
+    // Maior d com sqrt(d) <= 0.5: "d <= LIMITE_QUADRADO" decide exatamente como o sqrt
+    static final double LIMITE_QUADRADO = calcularLimiteQuadrado();
+    
+    private static double calcularLimiteQuadrado() {
+        double limite = 0.25;
+        while (Math.sqrt(Math.nextUp(limite)) <= 0.5) {
+            limite = Math.nextUp(limite);
+        }
+        return limite;
+    }
+    
+    /**
+     * xoshiro256** (Blackman & Vigna): 256 bits de estado, sem CAS nem
+     * sincronização; saltar() avança 2^128 passos para fluxos disjuntos
+     */
+    static final class Xoshiro256 {
+        private static final long[] SALTO = {
+            0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+        };
+        
+        private long s0, s1, s2, s3;
+        
+        public Xoshiro256(long semente) {
+            // Estado inicial via SplitMix64 (nunca todo zero)
+            s0 = splitMix64(semente += 0x9e3779b97f4a7c15L);
+            s1 = splitMix64(semente += 0x9e3779b97f4a7c15L);
+            s2 = splitMix64(semente += 0x9e3779b97f4a7c15L);
+            s3 = splitMix64(semente + 0x9e3779b97f4a7c15L);
+        }
+        
+        private Xoshiro256(Xoshiro256 origem) {
+            s0 = origem.s0;
+            s1 = origem.s1;
+            s2 = origem.s2;
+            s3 = origem.s3;
+        }
+        
+        private static long splitMix64(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+        
+        public long proximoLong() {
+            long resultado = Long.rotateLeft(s1 * 5, 7) * 9;
+            long t = s1 << 17;
+            s2 ^= s0;
+            s3 ^= s1;
+            s1 ^= s2;
+            s0 ^= s3;
+            s2 ^= t;
+            s3 = Long.rotateLeft(s3, 45);
+            return resultado;
+        }
+        
+        /**
+         * Double uniforme em [0, 1) com 53 bits
+         */
+        public double proximoDouble() {
+            return (proximoLong() >>> 11) * 0x1.0p-53;
+        }
+        
+        public Xoshiro256 copia() {
+            return new Xoshiro256(this);
+        }
+        
+        /**
+         * Equivale a 2^128 chamadas de proximoLong()
+         */
+        public void saltar() {
+            long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+            for (long salto : SALTO) {
+                for (int b = 0; b < 64; b++) {
+                    if ((salto & (1L << b)) != 0) {
+                        t0 ^= s0;
+                        t1 ^= s1;
+                        t2 ^= s2;
+                        t3 ^= s3;
+                    }
+                    proximoLong();
+                }
+            }
+            s0 = t0;
+            s1 = t1;
+            s2 = t2;
+            s3 = t3;
+        }
+    }
+    
     /**
-     * Worker que sorteia pontos e conta quantos caem no círculo
+     * Worker que sorteia pontos e conta quantos caem no círculo: o worker
+     * de contagem da instância π do IntegradorMonteCarlo (indicadora do
+     * círculo em cuboUnitario(2), ver integrarIndicadora). Mantém um laço
+     * próprio por gerador em vez do Amostrador genérico, que chamaria
+     * f.avaliar por interface e só usa SplittableRandom.
      */
     static class SimuladorMonteCarlo implements Runnable {
         private final long numPontos;
-        private final long[] contadores;
+        private final ResultadosParciais contadores;
         private final int indice;
+        private final String gerador;
+        private final boolean emLote;
         private final long seed;
+        private final SplittableRandom splittable;
+        private final Xoshiro256 xoshiro;
+        
+        private SimuladorMonteCarlo(long numPontos, ResultadosParciais contadores, int indice,
+                                    String gerador, long seed, SplittableRandom splittable,
+                                    Xoshiro256 xoshiro) {
+            this(numPontos, contadores, indice, gerador, MOTOR_PADRAO, seed, splittable, xoshiro);
+        }
         
-        public SimuladorMonteCarlo(long numPontos, long[] contadores, int indice, long seed) {
+        private SimuladorMonteCarlo(long numPontos, ResultadosParciais contadores, int indice,
+                                    String gerador, String motor, long seed,
+                                    SplittableRandom splittable, Xoshiro256 xoshiro) {
             this.numPontos = numPontos;
             this.contadores = contadores;
             this.indice = indice;
+            this.gerador = gerador;
+            this.emLote = motor.equals("lote");
             this.seed = seed;
+            this.splittable = splittable;
+            this.xoshiro = xoshiro;
+        }
+        
+        public SimuladorMonteCarlo(long numPontos, ResultadosParciais contadores, int indice, long seed) {
+            this(numPontos, contadores, indice, "random", seed, null, null);
+        }
+        
+        public SimuladorMonteCarlo(long numPontos, ResultadosParciais contadores, int indice,
+                                   SplittableRandom fluxo) {
+            this(numPontos, contadores, indice, "splittable", 0, fluxo, null);
+        }
+        
+        public SimuladorMonteCarlo(long numPontos, ResultadosParciais contadores, int indice,
+                                   Xoshiro256 fluxo) {
+            this(numPontos, contadores, indice, "xoshiro", 0, null, fluxo);
+        }
+        
+        /**
+         * ThreadLocalRandom: rápido, mas sem semente (não reproduzível)
+         */
+        public SimuladorMonteCarlo(long numPontos, ResultadosParciais contadores, int indice) {
+            this(numPontos, contadores, indice, "threadlocal", 0, null, null);
+        }
+        
+        /**
+         * Mesmo simulador com o motor trocado ("escalar" ou "lote")
+         */
+        public SimuladorMonteCarlo comMotor(String motor) {
+            return new SimuladorMonteCarlo(numPontos, contadores, indice, gerador, motor,
+                                           seed, splittable, xoshiro);
         }
         
         @Override
         public void run() {
-            Random rand = new Random(seed);
-            long dentroCirculo = 0;
+            long dentroCirculo;
+            // Um laço por tipo de gerador (sobrecargas de contar): em cada laço
+            // o tipo do receptor é exato e nextDouble() é inlinado
+            switch (gerador) {
+                case "random":
+                    dentroCirculo = contar(new Random(seed));
+                    break;
+                case "splittable":
+                    dentroCirculo = contar(splittable);
+                    break;
+                case "xoshiro":
+                    dentroCirculo = contar(xoshiro);
+                    break;
+                default:
+                    dentroCirculo = contar(ThreadLocalRandom.current());
+            }
             
+            contadores.set(indice, dentroCirculo);
+        }
+        
+        private long contar(Random rand) {
+            long dentroCirculo = 0;
+            if (emLote) {
+                double[] xs = new double[TAMANHO_BLOCO];
+                double[] ys = new double[TAMANHO_BLOCO];
+                for (long feitos = 0; feitos < numPontos; feitos += TAMANHO_BLOCO) {
+                    int n = (int) Math.min(TAMANHO_BLOCO, numPontos - feitos);
+                    for (int j = 0; j < n; j++) {
+                        xs[j] = rand.nextDouble();
+                        ys[j] = rand.nextDouble();
+                    }
+                    dentroCirculo += contarBloco(xs, ys, n);
+                }
+                return dentroCirculo;
+            }
             for (long i = 0; i < numPontos; i++) {
                 // Sortear ponto no quadrado unitário [0,1] x [0,1]
-                double x = rand.nextDouble();
-                double y = rand.nextDouble();
+                if (dentroDoCirculo(rand.nextDouble(), rand.nextDouble())) {
+                    dentroCirculo++;
+                }
+            }
+            return dentroCirculo;
+        }
+        
+        private long contar(ThreadLocalRandom rand) {
+            long dentroCirculo = 0;
+            if (emLote) {
+                double[] xs = new double[TAMANHO_BLOCO];
+                double[] ys = new double[TAMANHO_BLOCO];
+                for (long feitos = 0; feitos < numPontos; feitos += TAMANHO_BLOCO) {
+                    int n = (int) Math.min(TAMANHO_BLOCO, numPontos - feitos);
+                    for (int j = 0; j < n; j++) {
+                        xs[j] = rand.nextDouble();
+                        ys[j] = rand.nextDouble();
+                    }
+                    dentroCirculo += contarBloco(xs, ys, n);
+                }
+                return dentroCirculo;
+            }
+            for (long i = 0; i < numPontos; i++) {
+                if (dentroDoCirculo(rand.nextDouble(), rand.nextDouble())) {
+                    dentroCirculo++;
+                }
+            }
+            return dentroCirculo;
+        }
+        
+        private long contar(SplittableRandom rand) {
+            long dentroCirculo = 0;
+            if (emLote) {
+                double[] xs = new double[TAMANHO_BLOCO];
+                double[] ys = new double[TAMANHO_BLOCO];
+                for (long feitos = 0; feitos < numPontos; feitos += TAMANHO_BLOCO) {
+                    int n = (int) Math.min(TAMANHO_BLOCO, numPontos - feitos);
+                    for (int j = 0; j < n; j++) {
+                        xs[j] = rand.nextDouble();
+                        ys[j] = rand.nextDouble();
+                    }
+                    dentroCirculo += contarBloco(xs, ys, n);
+                }
+                return dentroCirculo;
+            }
+            for (long i = 0; i < numPontos; i++) {
+                if (dentroDoCirculo(rand.nextDouble(), rand.nextDouble())) {
+                    dentroCirculo++;
+                }
+            }
+            return dentroCirculo;
+        }
+        
+        private long contar(Xoshiro256 rand) {
+            long dentroCirculo = 0;
+            if (emLote) {
+                double[] xs = new double[TAMANHO_BLOCO];
+                double[] ys = new double[TAMANHO_BLOCO];
+                for (long feitos = 0; feitos < numPontos; feitos += TAMANHO_BLOCO) {
+                    int n = (int) Math.min(TAMANHO_BLOCO, numPontos - feitos);
+                    for (int j = 0; j < n; j++) {
+                        xs[j] = rand.proximoDouble();
+                        ys[j] = rand.proximoDouble();
+                    }
+                    dentroCirculo += contarBloco(xs, ys, n);
+                }
+                return dentroCirculo;
+            }
+            for (long i = 0; i < numPontos; i++) {
+                if (dentroDoCirculo(rand.proximoDouble(), rand.proximoDouble())) {
+                    dentroCirculo++;
+                }
+            }
+            return dentroCirculo;
+        }
+    }
+    
+    /**
+     * Sequência de baixa discrepância em 2D, começando em um índice
+     * qualquer (skip-ahead): cada worker gera um bloco contíguo dela
+     */
+    abstract static class SequenciaQuasi {
+        /**
+         * Preenche os próximos n pontos da sequência
+         */
+        abstract void preencher(double[] xs, double[] ys, int n);
+        
+        static SequenciaQuasi criar(String tipo, long inicio) {
+            switch (tipo) {
+                case "halton":
+                    return new Halton2D(inicio);
+                case "sobol":
+                    return new Sobol2D(inicio);
+                default:
+                    throw new IllegalArgumentException("Sequência desconhecida: " + tipo);
+            }
+        }
+    }
+    
+    /**
+     * Halton bases 2 e 3. Base 2: inversão de bits; base 3: dígitos mantidos
+     * incrementalmente em inteiro exato (rev / 3^39, sem acumular erro)
+     */
+    static final class Halton2D extends SequenciaQuasi {
+        private static final int DIGITOS = 39;              // 3^39 < 2^63
+        private static final long[] POTENCIAS_3 = new long[DIGITOS + 1];
+        static {
+            POTENCIAS_3[0] = 1;
+            for (int i = 1; i <= DIGITOS; i++) {
+                POTENCIAS_3[i] = POTENCIAS_3[i - 1] * 3;
+            }
+        }
+        
+        private long indice;
+        private final int[] digitos3 = new int[DIGITOS];   // Dígitos de indice em base 3
+        private long reverso3;                             // Radical inverso × 3^39
+        
+        Halton2D(long inicio) {
+            this.indice = inicio;
+            long n = inicio;
+            for (int k = 0; k < DIGITOS && n > 0; k++, n /= 3) {
+                digitos3[k] = (int) (n % 3);
+                reverso3 += digitos3[k] * POTENCIAS_3[DIGITOS - 1 - k];
+            }
+        }
+        
+        @Override
+        void preencher(double[] xs, double[] ys, int n) {
+            for (int j = 0; j < n; j++) {
+                xs[j] = (Long.reverse(indice) >>> 11) * 0x1.0p-53;
+                ys[j] = (double) reverso3 / POTENCIAS_3[DIGITOS];
                 
-                // Verificar se está dentro do círculo de raio 0.5 centrado em (0.5, 0.5)
-                double dx = x - 0.5;
-                double dy = y - 0.5;
-                double distancia = Math.sqrt(dx * dx + dy * dy);
+                // indice++ em base 3, com "vai um" (custo amortizado O(1))
+                indice++;
+                int k = 0;
+                while (digitos3[k] == 2) {
+                    digitos3[k] = 0;
+                    reverso3 -= 2 * POTENCIAS_3[DIGITOS - 1 - k];
+                    k++;
+                }
+                digitos3[k]++;
+                reverso3 += POTENCIAS_3[DIGITOS - 1 - k];
+            }
+        }
+    }
+    
+    /**
+     * Sobol 2D em ordem de código Gray (64 bits de ponto fixo): dimensão 1
+     * é van der Corput; dimensão 2 usa o polinômio primitivo x + 1.
+     * Skip-ahead direto: ponto(n) = XOR dos v_k nos bits de gray(n).
+     */
+    static final class Sobol2D extends SequenciaQuasi {
+        private static final long[] DIRECAO_X = new long[64];
+        private static final long[] DIRECAO_Y = new long[64];
+        static {
+            long m = 1;
+            for (int k = 0; k < 64; k++) {
+                DIRECAO_X[k] = 1L << (63 - k);
+                DIRECAO_Y[k] = m << (63 - k);
+                m = (m << 1) ^ m;                          // m_k = 2·m_{k-1} XOR m_{k-1}
+            }
+        }
+        
+        private long indice;
+        private long x;
+        private long y;
+        
+        Sobol2D(long inicio) {
+            this.indice = inicio;
+            long gray = inicio ^ (inicio >>> 1);
+            for (int k = 0; k < 64; k++) {
+                if ((gray & (1L << k)) != 0) {
+                    x ^= DIRECAO_X[k];
+                    y ^= DIRECAO_Y[k];
+                }
+            }
+        }
+        
+        @Override
+        void preencher(double[] xs, double[] ys, int n) {
+            for (int j = 0; j < n; j++) {
+                xs[j] = (x >>> 11) * 0x1.0p-53;
+                ys[j] = (y >>> 11) * 0x1.0p-53;
                 
-                if (distancia <= 0.5) {
-                    dentroCirculo++;
+                // Próximo ponto: muda um único bit de gray(n)
+                int c = Long.numberOfTrailingZeros(~indice);
+                x ^= DIRECAO_X[c];
+                y ^= DIRECAO_Y[c];
+                indice++;
+            }
+        }
+    }
+    
+    /**
+     * Worker quasi-Monte Carlo: conta um bloco contíguo da sequência
+     */
+    static class SimuladorQuasi implements Runnable {
+        private final SequenciaQuasi sequencia;
+        private final long numPontos;
+        private final ResultadosParciais contadores;
+        private final int indice;
+        
+        public SimuladorQuasi(SequenciaQuasi sequencia, long numPontos,
+                              ResultadosParciais contadores, int indice) {
+            this.sequencia = sequencia;
+            this.numPontos = numPontos;
+            this.contadores = contadores;
+            this.indice = indice;
+        }
+        
+        @Override
+        public void run() {
+            double[] xs = new double[TAMANHO_BLOCO];
+            double[] ys = new double[TAMANHO_BLOCO];
+            long dentroCirculo = 0;
+            for (long feitos = 0; feitos < numPontos; feitos += TAMANHO_BLOCO) {
+                int n = (int) Math.min(TAMANHO_BLOCO, numPontos - feitos);
+                sequencia.preencher(xs, ys, n);
+                dentroCirculo += contarBloco(xs, ys, n);
+            }
+            contadores.set(indice, dentroCirculo);
+        }
+    }
+    
+    // Pontos por rodada entre dois reportes de um worker adaptativo
+    static final int PONTOS_POR_REPORTE = 64 * TAMANHO_BLOCO;
+    
+    /**
+     * Worker adaptativo: sorteia em rodadas e reporta os parciais em
+     * LongAdders (células por thread, sem disputa) até o coordenador parar
+     */
+    static class SimuladorAdaptativo implements Runnable {
+        private final SplittableRandom rand;
+        private final LongAdder dentro;
+        private final LongAdder total;
+        private final long maxPontos;
+        private volatile boolean parar = false;
+        
+        public SimuladorAdaptativo(SplittableRandom rand, LongAdder dentro, LongAdder total, long maxPontos) {
+            this.rand = rand;
+            this.dentro = dentro;
+            this.total = total;
+            this.maxPontos = maxPontos;
+        }
+        
+        public void parar() {
+            parar = true;
+        }
+        
+        @Override
+        public void run() {
+            double[] xs = new double[TAMANHO_BLOCO];
+            double[] ys = new double[TAMANHO_BLOCO];
+            for (long feitos = 0; feitos < maxPontos && !parar; feitos += PONTOS_POR_REPORTE) {
+                long dentroRodada = 0;
+                for (int b = 0; b < PONTOS_POR_REPORTE / TAMANHO_BLOCO; b++) {
+                    for (int j = 0; j < TAMANHO_BLOCO; j++) {
+                        xs[j] = rand.nextDouble();
+                        ys[j] = rand.nextDouble();
+                    }
+                    dentroRodada += contarBloco(xs, ys, TAMANHO_BLOCO);
                 }
+                // total antes de dentro: quem lê dentro e depois total nunca
+                // vê pontos dentro sem os pontos sorteados correspondentes
+                total.add(PONTOS_POR_REPORTE);
+                dentro.add(dentroRodada);
             }
-            
-            contadores[indice] = dentroCirculo;
         }
     }
     
+    /**
+     * Resultado de uma estimativa adaptativa
+     */
+    static class ResultadoAdaptativo {
+        final double pi;
+        final long pontos;
+        final double erroPadrao;
+        
+        ResultadoAdaptativo(long dentro, long pontos) {
+            this.pontos = pontos;
+            this.pi = 4.0 * dentro / pontos;
+            this.erroPadrao = erroPadrao(dentro, pontos);
+        }
+    }
+    
+    /**
+     * Erro-padrão de 4·p̂ (binomial): 4·√(p̂(1−p̂)/n)
+     */
+    static double erroPadrao(long dentro, long pontos) {
+        double p = (double) dentro / pontos;
+        return 4 * Math.sqrt(p * (1 - p) / pontos);
+    }
+    
+    /**
+     * Verificar se está dentro do círculo de raio 0.5 centrado em (0.5, 0.5)
+     */
+    static boolean dentroDoCirculo(double x, double y) {
+        double dx = x - 0.5;
+        double dy = y - 0.5;
+        double distancia = Math.sqrt(dx * dx + dy * dy);
+        
+        return distancia <= 0.5;
+    }
+    
+    /**
+     * Conta pontos do bloco dentro do círculo sem sqrt e sem desvio: o bit
+     * de sinal de (LIMITE_QUADRADO - d²) é 1 exatamente quando o ponto
+     * está fora. Laço contado sobre arrays primitivos, sem desvio; se o
+     * C2 vetoriza ou não, a tabela de motores mostra o efeito real.
+     */
+    static int contarBloco(double[] xs, double[] ys, int n) {
+        long fora = 0;
+        for (int j = 0; j < n; j++) {
+            double dx = xs[j] - 0.5;
+            double dy = ys[j] - 0.5;
+            fora += Double.doubleToRawLongBits(LIMITE_QUADRADO - (dx * dx + dy * dy)) >>> 63;
+        }
+        return n - (int) fora;
+    }
+    
+    /**
+     * Versão escalar do mesmo bloco (sqrt + if por ponto), para comparação
+     */
+    static int contarBlocoEscalar(double[] xs, double[] ys, int n) {
+        int dentro = 0;
+        for (int j = 0; j < n; j++) {
+            if (dentroDoCirculo(xs[j], ys[j])) {
+                dentro++;
+            }
+        }
+        return dentro;
+    }
+    
     public static void main(String[] args) {
         System.out.println("=== Atividade 10 - Estimativa de π (Monte Carlo) ===\n");
         
@@ -83,6 +586,184 @@ public class MonteCarlo {
             }
         }
         
+        // Geradores: vazão por thread e estatística do erro
+        long pontosGerador = 10_000_000L;
+        System.out.println("\n=== GERADORES: PONTOS/s (" + formatarNumero(pontosGerador) + " pontos por thread) ===\n");
+        System.out.println("| Gerador     | Threads | Tempo (ms) | Pontos/s (M) | Reproduzível? |");
+        System.out.println("|-------------|---------|------------|--------------|---------------|");
+        
+        for (String gerador : GERADORES) {
+            for (int T : numThreadsArray) {
+                Medidor.Resultado r = Medidor.medir(
+                        () -> Double.doubleToLongBits(estimarPi(T, pontosGerador, gerador, 42)));
+                boolean reproduzivel = estimarPi(T, 100_000, gerador, 7) == estimarPi(T, 100_000, gerador, 7);
+                System.out.printf("| %-11s | %7d | %10.0f | %12.1f | %13s |\n",
+                                gerador, T, r.mediaMs(), r.opsPorSegundo(pontosGerador * T) / 1e6,
+                                reproduzivel ? "Sim" : "Não");
+            }
+        }
+        
+        int repeticoes = 50;
+        long pontosErro = 1_000_000L;
+        int threadsErro = 4;
+        long totalErro = pontosErro * threadsErro;
+        double desvioTeorico = 4 * Math.sqrt((Math.PI / 4) * (1 - Math.PI / 4) / totalErro);
+        System.out.println("\n=== GERADORES: ERRO DE π (" + repeticoes + " sementes, "
+                         + threadsErro + "×" + formatarNumero(pontosErro) + " pontos) ===\n");
+        System.out.printf("Desvio-padrão teórico: %.6f\n\n", desvioTeorico);
+        System.out.println("| Gerador     | Média de π | Erro abs. médio | Desvio-padrão |");
+        System.out.println("|-------------|------------|-----------------|---------------|");
+        
+        for (String gerador : GERADORES) {
+            double soma = 0, somaQuadrados = 0, somaErros = 0;
+            for (int r = 0; r < repeticoes; r++) {
+                double pi = estimarPi(threadsErro, pontosErro, gerador, 1000 + r);
+                soma += pi;
+                somaQuadrados += pi * pi;
+                somaErros += Math.abs(pi - Math.PI);
+            }
+            double media = soma / repeticoes;
+            double desvio = Math.sqrt(Math.max(0, somaQuadrados / repeticoes - media * media));
+            System.out.printf("| %-11s | %10.6f | %15.6f | %13.6f |\n",
+                            gerador, media, somaErros / repeticoes, desvio);
+        }
+        
+        // Motores: só o teste do ponto (pontos já gerados) e a simulação completa
+        double[] xs = new double[TAMANHO_BLOCO];
+        double[] ys = new double[TAMANHO_BLOCO];
+        SplittableRandom pontos = new SplittableRandom(1);
+        for (int j = 0; j < TAMANHO_BLOCO; j++) {
+            xs[j] = pontos.nextDouble();
+            ys[j] = pontos.nextDouble();
+        }
+        int blocos = 10_000;
+        double kernelEscalar = Medidor.medir(3, 10, () -> {
+            long d = 0;
+            for (int b = 0; b < blocos; b++) d += contarBlocoEscalar(xs, ys, TAMANHO_BLOCO);
+            return d;
+        }).opsPorSegundo((long) blocos * TAMANHO_BLOCO) / 1e6;
+        double kernelLote = Medidor.medir(3, 10, () -> {
+            long d = 0;
+            for (int b = 0; b < blocos; b++) d += contarBloco(xs, ys, TAMANHO_BLOCO);
+            return d;
+        }).opsPorSegundo((long) blocos * TAMANHO_BLOCO) / 1e6;
+        
+        System.out.println("\n=== MOTORES: TESTE DO PONTO (pontos pré-gerados, 1 thread) ===\n");
+        System.out.println("| Motor   | Pontos/s (M) |");
+        System.out.println("|---------|--------------|");
+        System.out.printf("| %-7s | %12.1f |\n", "escalar", kernelEscalar);
+        System.out.printf("| %-7s | %12.1f |\n", "lote", kernelLote);
+        
+        System.out.println("\n=== MOTORES: SIMULAÇÃO COMPLETA (" + formatarNumero(pontosGerador) + " pontos por thread) ===\n");
+        System.out.println("| Gerador    | Motor   | Threads | Pontos/s (M) | Mesma estimativa? |");
+        System.out.println("|------------|---------|---------|--------------|-------------------|");
+        
+        for (String gerador : new String[]{"splittable", "xoshiro"}) {
+            for (int T : new int[]{1, 4}) {
+                for (String motor : MOTORES) {
+                    Medidor.Resultado r = Medidor.medir(
+                            () -> Double.doubleToLongBits(estimarPi(T, pontosGerador, gerador, 42, motor)));
+                    boolean mesma = true;
+                    for (long semente = 1; semente <= 5; semente++) {
+                        mesma &= estimarPi(T, 1_000_003, gerador, semente, motor)
+                              == estimarPi(T, 1_000_003, gerador, semente, "escalar");
+                    }
+                    System.out.printf("| %-10s | %-7s | %7d | %12.1f | %17s |\n",
+                                    gerador, motor, T, r.opsPorSegundo(pontosGerador * T) / 1e6,
+                                    mesma ? "Sim ✓" : "Não ✗");
+                }
+            }
+        }
+        
+        // Precisão adaptativa: para ao atingir o erro-alvo
+        int threadsAdaptativo = 4;
+        System.out.println("\n=== PRECISÃO ADAPTATIVA (" + threadsAdaptativo + " threads, alvo = erro-padrão) ===\n");
+        System.out.println("| Alvo     | Pontos usados | Tempo (ms) | Erro real | Lote fixo que atinge | Fixo (ms) | Economia |");
+        System.out.println("|----------|---------------|------------|-----------|----------------------|-----------|----------|");
+        
+        for (double alvo : new double[]{1e-3, 3e-4, 1e-4}) {
+            ResultadoAdaptativo r = estimarPiAdaptativo(threadsAdaptativo, alvo, 1.0, Long.MAX_VALUE, 42);
+            // Mesmos aquecimentos e medições nos dois lados da comparação
+            double tempoAdaptativo = Medidor.medir(
+                    () -> estimarPiAdaptativo(threadsAdaptativo, alvo, 1.0, Long.MAX_VALUE, 42).pontos).mediaMs();
+            
+            // Menor lote de tamanhoLoteArray cujo erro-padrão esperado atinge o alvo
+            long loteFixo = tamanhoLoteArray[tamanhoLoteArray.length - 1];
+            for (long K : tamanhoLoteArray) {
+                double p = Math.PI / 4;
+                if (4 * Math.sqrt(p * (1 - p) / (K * threadsAdaptativo)) <= alvo) {
+                    loteFixo = K;
+                    break;
+                }
+            }
+            long lote = loteFixo;
+            double tempoFixo = Medidor.medir(
+                    () -> Double.doubleToLongBits(estimarPi(threadsAdaptativo, lote))).mediaMs();
+            
+            System.out.printf("| %8.0e | %,13d | %10.0f | %9.6f | %20s | %9.0f | %7.0f%% |\n",
+                            alvo, r.pontos, tempoAdaptativo, Math.abs(r.pi - Math.PI),
+                            formatarNumero(lote) + "/thread", tempoFixo,
+                            100.0 * (tempoFixo - tempoAdaptativo) / tempoFixo);
+        }
+        
+        // Workers persistentes: lotes pequenos, onde criar threads pesa mais
+        System.out.println("\n=== WORKERS PERSISTENTES vs THREADS NOVAS POR CHAMADA ===\n");
+        System.out.println("| Pontos/thread | Threads | Threads novas (ms) | Persistentes (ms) | Ganho | Mesma estimativa? |");
+        System.out.println("|---------------|---------|--------------------|-------------------|-------|-------------------|");
+        
+        for (int T : numThreadsArray) {
+            PoolPersistente pool = new PoolPersistente(T);
+            for (long K : new long[]{1_000L, 10_000L, 100_000L, 1_000_000L}) {
+                double novas = Medidor.medir(20, 50,
+                        () -> Double.doubleToLongBits(estimarPi(T, K, GERADOR_PADRAO, 42))).mediaMs();
+                double persistentes = Medidor.medir(20, 50,
+                        () -> Double.doubleToLongBits(estimarPi(pool, K, GERADOR_PADRAO, 42))).mediaMs();
+                boolean mesma = estimarPi(pool, K, GERADOR_PADRAO, 7) == estimarPi(T, K, GERADOR_PADRAO, 7);
+                System.out.printf("| %13s | %7d | %18.3f | %17.3f | %4.1fx | %17s |\n",
+                                formatarNumero(K), T, novas, persistentes, novas / persistentes,
+                                mesma ? "Sim ✓" : "Não ✗");
+            }
+            pool.encerrar();
+        }
+        
+        // Quasi-Monte Carlo: erro × tempo contra os pontos pseudoaleatórios
+        int threadsQuasi = 4;
+        int sementes = 5;
+        System.out.println("\n=== QUASI-MONTE CARLO: ERRO × TEMPO (" + threadsQuasi + " threads) ===\n");
+        System.out.println("| Pontos totais | MC erro médio | MC (ms) | Halton erro | Halton (ms) | Sobol erro | Sobol (ms) |");
+        System.out.println("|---------------|---------------|---------|-------------|-------------|------------|------------|");
+        
+        for (long total = 10_000L; total <= 100_000_000L; total *= 10) {
+            long porThread = total / threadsQuasi;
+            // MC: erro médio sobre algumas sementes (uma única é ruído puro)
+            double erroMC = 0;
+            long inicioMC = System.nanoTime();
+            for (int r = 0; r < sementes; r++) {
+                erroMC += Math.abs(estimarPi(threadsQuasi, porThread, GERADOR_PADRAO, 100 + r) - Math.PI);
+            }
+            double tempoMC = (System.nanoTime() - inicioMC) / 1e6 / sementes;
+            erroMC /= sementes;
+            
+            double[] erroQ = new double[2];
+            double[] tempoQ = new double[2];
+            String[] sequencias = {"halton", "sobol"};
+            for (int q = 0; q < 2; q++) {
+                String seq = sequencias[q];
+                Medidor.Resultado r = Medidor.medir(
+                        () -> Double.doubleToLongBits(estimarPiQuasi(threadsQuasi, porThread, seq)));
+                erroQ[q] = Math.abs(estimarPiQuasi(threadsQuasi, porThread, seq) - Math.PI);
+                tempoQ[q] = r.mediaMs();
+            }
+            
+            System.out.printf("| %13s | %13.2e | %7.1f | %11.2e | %11.1f | %10.2e | %10.1f |\n",
+                            formatarNumero(total), erroMC, tempoMC,
+                            erroQ[0], tempoQ[0], erroQ[1], tempoQ[1]);
+        }
+        boolean independente = estimarPiQuasi(1, 1_000_000, "sobol") == estimarPiQuasi(4, 250_000, "sobol")
+                            && estimarPiQuasi(1, 1_000_000, "halton") == estimarPiQuasi(8, 125_000, "halton");
+        System.out.println("\nMesma estimativa com 1, 4 e 8 threads (skip-ahead): "
+                         + (independente ? "Sim ✓" : "Não ✗"));
+        
         System.out.println("\n--- ANÁLISE: TAMANHO DO LOTE × PARALELISMO ---");
         System.out.println();
         System.out.println("LOTE PEQUENO (1M pontos/thread):");
@@ -107,23 +788,134 @@ public class MonteCarlo {
         System.out.println("PRECISÃO DA ESTIMATIVA:");
         System.out.println("Erro decresce com √N (lei dos grandes números)");
         System.out.println("Dobrar pontos → reduz erro pela metade");
+        System.out.println();
+        System.out.println("GERADORES:");
+        System.out.println("- random: java.util.Random faz CAS na semente a cada nextDouble()");
+        System.out.println("- splittable/xoshiro: estado local, sem sincronização; fluxos por");
+        System.out.println("  thread derivados da semente (split() / saltos de 2^128)");
+        System.out.println("- threadlocal: rápido, mas não aceita semente (não reproduzível)");
+        System.out.println("- O erro acompanha o desvio teórico em todos: a qualidade");
+        System.out.println("  estatística é a mesma, só muda a vazão");
+        System.out.println();
+        System.out.println("MOTOR EM LOTE:");
+        System.out.println("- sqrt(d) <= 0.5 equivale a d <= LIMITE_QUADRADO (≈ 0.25): sem sqrt");
+        System.out.println("- Contagem pelo bit de sinal: sem desvio imprevisível (50/50 perto");
+        System.out.println("  da borda) em laço contado sobre arrays primitivos; sem garantia de");
+        System.out.println("  SIMD: a tabela de motores mostra o ganho real");
+        System.out.println("- Mesmos números sorteados na mesma ordem: estimativa idêntica");
+        System.out.println();
+        System.out.println("PRECISÃO ADAPTATIVA:");
+        System.out.println("- Workers reportam a cada " + PONTOS_POR_REPORTE + " pontos em LongAdders");
+        System.out.println("- Para quando 4·√(p̂(1−p̂)/n) atinge o alvo: sem pontos a mais");
+        System.out.println("- Lotes fixos só acertam o alvo em degraus de 10x (1M/10M/100M)");
+        System.out.println();
+        System.out.println("WORKERS PERSISTENTES:");
+        System.out.println("- Threads criadas uma vez; cada execução é uma troca de fase");
+        System.out.println("  (contador volátil + unpark) e uma contagem regressiva no fim");
+        System.out.println("- Ganho maior nos lotes pequenos, onde start()/join() dominam");
+        System.out.println();
+        System.out.println("QUASI-MONTE CARLO:");
+        System.out.println("- Pontos de Halton/Sobol cobrem o quadrado de forma uniforme:");
+        System.out.println("  erro ~ (log N)²/N em vez de 1/√N");
+        System.out.println("- Mesma precisão com ordens de grandeza menos pontos");
+        System.out.println("- Skip-ahead: worker i gera o bloco [i·K, (i+1)·K) da sequência;");
+        System.out.println("  leapfrog (i, i+T, ...) com Halton base 2 e T par correlaciona");
+        System.out.println("- Determinístico: sem semente, sem estimativa de erro por amostragem");
     }
     
     /**
-     * Estima π usando Monte Carlo paralelo
+     * Estima π usando Monte Carlo paralelo (gerador padrão, semente nova)
      */
     static double estimarPi(int numThreads, long pontosPorThread) {
+        return estimarPi(numThreads, pontosPorThread, GERADOR_PADRAO, System.nanoTime());
+    }
+    
+    /**
+     * Estima π com o gerador escolhido; os fluxos por thread são derivados
+     * deterministicamente da semente (mesma semente → mesma estimativa,
+     * exceto threadlocal)
+     */
+    static double estimarPi(int numThreads, long pontosPorThread, String gerador, long semente) {
+        return estimarPi(numThreads, pontosPorThread, gerador, semente, MOTOR_PADRAO);
+    }
+    
+    /**
+     * Estima π com gerador e motor escolhidos (os motores dão a mesma
+     * estimativa para a mesma semente)
+     */
+    static double estimarPi(int numThreads, long pontosPorThread, String gerador, long semente,
+                            String motor) {
+        // π ≈ 4 × (área do círculo / área do quadrado)
+        // Círculo raio 0.5 tem área π/4
+        // Quadrado unitário tem área 1
+        // Razão = (dentro/total) ≈ (π/4)/1
+        // Logo: π ≈ 4 × ∫ indicadora do círculo em [0,1]²
+        return 4 * QUADRADO_UNITARIO.integrarIndicadora(numThreads, pontosPorThread,
+                contadores -> criarSimuladores(numThreads, pontosPorThread, gerador,
+                                               semente, motor, contadores)).valor;
+    }
+    
+    /**
+     * Mesma estimativa executada nos workers quentes de um PoolPersistente
+     * (sem criar nem juntar threads a cada chamada)
+     */
+    static double estimarPi(PoolPersistente pool, long pontosPorThread, String gerador, long semente) {
+        return 4 * QUADRADO_UNITARIO.integrarIndicadora(pool, pontosPorThread,
+                contadores -> criarSimuladores(pool.numWorkers(), pontosPorThread, gerador,
+                                               semente, MOTOR_PADRAO, contadores)).valor;
+    }
+    
+    /**
+     * Um simulador por thread, com fluxos derivados deterministicamente da semente
+     */
+    static SimuladorMonteCarlo[] criarSimuladores(int numThreads, long pontosPorThread, String gerador,
+                                                  long semente, String motor,
+                                                  ResultadosParciais contadores) {
+        SimuladorMonteCarlo[] simuladores = new SimuladorMonteCarlo[numThreads];
+        SplittableRandom raiz = new SplittableRandom(semente);
+        Xoshiro256 base = new Xoshiro256(semente);
+        
+        for (int i = 0; i < numThreads; i++) {
+            SimuladorMonteCarlo simulador;
+            switch (gerador) {
+                case "random":
+                    simulador = new SimuladorMonteCarlo(pontosPorThread, contadores, i, raiz.nextLong());
+                    break;
+                case "splittable":
+                    simulador = new SimuladorMonteCarlo(pontosPorThread, contadores, i, raiz.split());
+                    break;
+                case "xoshiro":
+                    simulador = new SimuladorMonteCarlo(pontosPorThread, contadores, i, base.copia());
+                    base.saltar(); // Próxima thread começa 2^128 passos adiante
+                    break;
+                case "threadlocal":
+                    simulador = new SimuladorMonteCarlo(pontosPorThread, contadores, i);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Gerador desconhecido: " + gerador);
+            }
+            simuladores[i] = simulador.comMotor(motor);
+        }
+        
+        return simuladores;
+    }
+    
+    /**
+     * Estima π com os primeiros numThreads × pontosPorThread pontos de uma
+     * sequência de baixa discrepância ("halton" ou "sobol"). O worker i
+     * começa no índice i × pontosPorThread (skip-ahead): o resultado não
+     * depende do número de threads.
+     */
+    static double estimarPiQuasi(int numThreads, long pontosPorThread, String sequencia) {
         Thread[] threads = new Thread[numThreads];
-        long[] contadores = new long[numThreads];
+        ResultadosParciais contadores = new ResultadosParciais(numThreads);
         
-        // Criar e iniciar threads
         for (int i = 0; i < numThreads; i++) {
-            long seed = System.nanoTime() + i;
-            threads[i] = new Thread(new SimuladorMonteCarlo(pontosPorThread, contadores, i, seed));
+            SequenciaQuasi seq = SequenciaQuasi.criar(sequencia, i * pontosPorThread);
+            threads[i] = new Thread(new SimuladorQuasi(seq, pontosPorThread, contadores, i));
             threads[i].start();
         }
         
-        // Aguardar todas
         for (int i = 0; i < numThreads; i++) {
             try {
                 threads[i].join();
@@ -132,39 +924,83 @@ public class MonteCarlo {
             }
         }
         
-        // Agregar contadores
-        long totalDentro = 0;
-        for (long contador : contadores) {
-            totalDentro += contador;
+        return 4.0 * contadores.somar() / (numThreads * pontosPorThread);
+    }
+    
+    /**
+     * π pelo caminho genérico do integrador (Amostrador com estratos):
+     * 4 × ∫ indicadora do círculo em [0,1]². Com estratos = 1 os fluxos
+     * são os mesmos do gerador "splittable" e o valor é igual ao de estimarPi.
+     */
+    static IntegradorMonteCarlo.Estimativa estimarPiIntegrado(int numThreads, long pontos, int estratos,
+                                                           long semente) {
+        return QUADRADO_UNITARIO.integrar(
+                p -> dentroDoCirculo(p[0], p[1]) ? 4.0 : 0.0, pontos, estratos, numThreads, semente);
+    }
+    
+    /**
+     * Estima π até z·erroPadrao <= erroAlvo (z = 1: erro-padrão; z = 1.96:
+     * meia-largura do intervalo de 95%). O coordenador lê os parciais a cada
+     * 1 ms e para os workers assim que o alvo é atingido.
+     */
+    static ResultadoAdaptativo estimarPiAdaptativo(int numThreads, double erroAlvo, double z,
+                                                   long maxPontosPorThread, long semente) {
+        LongAdder dentro = new LongAdder();
+        LongAdder total = new LongAdder();
+        SplittableRandom raiz = new SplittableRandom(semente);
+        SimuladorAdaptativo[] simuladores = new SimuladorAdaptativo[numThreads];
+        Thread[] threads = new Thread[numThreads];
+        
+        for (int i = 0; i < numThreads; i++) {
+            simuladores[i] = new SimuladorAdaptativo(raiz.split(), dentro, total, maxPontosPorThread);
+            threads[i] = new Thread(simuladores[i]);
+            threads[i].start();
         }
         
-        long totalPontos = numThreads * pontosPorThread;
+        try {
+            boolean algumVivo = true;
+            while (algumVivo) {
+                // dentro antes de total (ordem inversa à dos workers): todo 'dentro'
+                // lido tem seu 'total' incluído. Rodadas a meio caminho só entram
+                // em 'pontos', o que puxa p̂ para baixo e aumenta o erro-padrão
+                // estimado (p̂ > 1/2): o erro nunca parece menor do que é
+                long d = dentro.sum();
+                long pontos = total.sum();
+                if (pontos > 0 && d <= pontos && z * erroPadrao(d, pontos) <= erroAlvo) {
+                    break;
+                }
+                Thread.sleep(1);
+                algumVivo = false;
+                for (Thread t : threads) {
+                    algumVivo |= t.isAlive();
+                }
+            }
+            for (SimuladorAdaptativo simulador : simuladores) {
+                simulador.parar();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
         
-        // π ≈ 4 × (área do círculo / área do quadrado)
-        // Círculo raio 0.5 tem área π/4
-        // Quadrado unitário tem área 1
-        // Razão = (dentro/total) ≈ (π/4)/1
-        // Logo: π ≈ 4 × (dentro/total)
-        return 4.0 * totalDentro / totalPontos;
+        // Após o join a contagem é exata (inclui as rodadas em andamento)
+        return new ResultadoAdaptativo(dentro.sum(), total.sum());
     }
     
     /**
      * Mede tempo de execução
      */
     static long medirTempo(int numThreads, long pontosPorThread) {
-        // Aquecimento
+        // Aquecimento (lote reduzido)
         estimarPi(numThreads, pontosPorThread / 10);
         
-        // Medir 3 vezes
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            long inicio = System.nanoTime();
-            estimarPi(numThreads, pontosPorThread);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
+        // Medições padrão do Medidor
+        Medidor.Resultado r = Medidor.medir(0, Medidor.MEDICOES_PADRAO,
+                () -> Double.doubleToLongBits(estimarPi(numThreads, pontosPorThread)));
         
-        return (tempos[0] + tempos[1] + tempos[2]) / 3;
+        return Math.round(r.mediaMs());
     }
     
     /**
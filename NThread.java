@@ -22,7 +22,33 @@ public class NThread {
         }
     }
     
+    /**
+     * Tarefa bloqueante (simula I/O): só dorme
+     */
+    static class TarefaBloqueante implements Runnable {
+        private final int duracaoMs;
+        
+        public TarefaBloqueante(int duracaoMs) {
+            this.duracaoMs = duracaoMs;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(duracaoMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
     public static void main(String[] args) {
+        // Modo interno: uma linha do fan-out, executada em JVM nova pela tabela
+        if (args.length == 4 && args[0].equals("fanout")) {
+            ThreadsVirtuais.responderJvmPai(medirFanOut(Integer.parseInt(args[1]),
+                    args[2].equals("virtual"), Integer.parseInt(args[3])));
+        }
+        
         // Ler N da linha de comando ou usar valor padrão
         int N = 5; // Valor padrão
         
@@ -34,16 +60,22 @@ public class NThread {
             }
         }
         
+        // Segundo argumento opcional: "virtual" usa threads virtuais (JDK 21+)
+        boolean virtual = args.length > 1 && args[1].equals("virtual");
+        if (virtual && !ThreadsVirtuais.disponivel()) {
+            System.out.println("Threads virtuais exigem JDK 21+. Usando threads de plataforma.");
+            virtual = false;
+        }
+        
         System.out.println("=== Atividade 2 - N Threads ===");
-        System.out.println("Criando " + N + " threads...\n");
+        System.out.println("Criando " + N + " threads" + (virtual ? " virtuais" : "") + "...\n");
         
         // Array para armazenar as threads
         Thread[] threads = new Thread[N];
         
         // Criar e iniciar todas as threads
         for (int i = 0; i < N; i++) {
-            threads[i] = new Thread(new IndexedRunnable(i));
-            threads[i].start();
+            threads[i] = ThreadsVirtuais.iniciar(new IndexedRunnable(i), virtual);
         }
         
         // Aguardar conclusão de todas
@@ -59,18 +91,59 @@ public class NThread {
         
         // Teste com N=10
         System.out.println("\n--- Teste com N=10 ---");
-        testWithN(10);
+        testWithN(10, virtual);
+        
+        // Fan-out de tarefas bloqueantes: plataforma vs virtual
+        int limitePlataforma = Integer.getInteger("nthread.limitePlataforma", 10_000);
+        int duracaoMs = 100;
+        
+        System.out.println("\n--- Fan-out de tarefas bloqueantes (sleep " + duracaoMs + " ms) ---");
+        System.out.println("(threads de plataforma até " + limitePlataforma + 
+                         "; ajuste com -Dnthread.limitePlataforma=N)");
+        System.out.println("(cada linha roda em uma JVM nova; Δ RSS = pico - RSS antes de criar as tarefas)\n");
+        System.out.println("| Tarefas | Tipo       | Criação (ms) | Δ RSS pico (MB) | Conclusão (ms) |");
+        System.out.println("|---------|------------|--------------|-----------------|----------------|");
+        
+        for (int tarefas : new int[]{1_000, 10_000, 100_000}) {
+            for (boolean usarVirtual : new boolean[]{false, true}) {
+                String tipo = usarVirtual ? "virtual" : "plataforma";
+                long[] r = null;
+                if (usarVirtual ? ThreadsVirtuais.disponivel() : tarefas <= limitePlataforma) {
+                    r = ThreadsVirtuais.executarEmNovaJvm(NThread.class, "fanout", String.valueOf(tarefas),
+                                                          tipo, String.valueOf(duracaoMs));
+                }
+                
+                if (r == null) {
+                    String motivo = usarVirtual && !ThreadsVirtuais.disponivel() ? "JDK 21+" : "-";
+                    System.out.printf("| %7d | %-10s | %12s | %15s | %14s |\n", tarefas, tipo, motivo, "-", "-");
+                } else {
+                    System.out.printf("| %7d | %-10s | %12d | %15s | %14d |\n", tarefas, tipo, r[0],
+                                    r[1] < 0 ? "-" : String.format("%.1f", r[1] / 1024.0), r[2]);
+                }
+            }
+        }
+        
+        System.out.println("\nThread de plataforma: 1 thread do SO, pilha reservada (~1 MB)");
+        System.out.println("Thread virtual: agendada pela JVM sobre poucas threads do SO;");
+        System.out.println("ao bloquear (sleep, I/O) libera a thread do SO. Pilha no heap,");
+        System.out.println("cresce sob demanda → 100k tarefas bloqueantes cabem com folga.");
     }
     
     /**
      * Método auxiliar para testar com diferentes valores de N
      */
     static void testWithN(int N) {
+        testWithN(N, false);
+    }
+    
+    /**
+     * Como testWithN(N), com threads virtuais se 'virtual' (JDK 21+)
+     */
+    static void testWithN(int N, boolean virtual) {
         Thread[] threads = new Thread[N];
         
         for (int i = 0; i < N; i++) {
-            threads[i] = new Thread(new IndexedRunnable(i));
-            threads[i].start();
+            threads[i] = ThreadsVirtuais.iniciar(new IndexedRunnable(i), virtual);
         }
         
         for (int i = 0; i < N; i++) {
@@ -83,6 +156,49 @@ public class NThread {
         
         System.out.println("Teste com N=" + N + " concluído!");
     }
+    
+    /**
+     * Inicia N tarefas bloqueantes e mede: tempo de criação, quanto o RSS
+     * subiu (pico amostrado durante a criação menos o RSS de antes) e tempo
+     * até a última terminar. Devolve null se não foi possível criar todas
+     * (limite de threads do SO).
+     */
+    static long[] medirFanOut(int N, boolean virtual, int duracaoMs) {
+        Thread[] threads = new Thread[N];
+        int criadas = 0;
+        long baseRssKb = ThreadsVirtuais.rssKb();
+        long picoRssKb = baseRssKb;
+        long inicio = System.nanoTime();
+        
+        try {
+            for (; criadas < N; criadas++) {
+                threads[criadas] = ThreadsVirtuais.iniciar(new TarefaBloqueante(duracaoMs), virtual);
+                if (criadas % 1000 == 999) {
+                    picoRssKb = Math.max(picoRssKb, ThreadsVirtuais.rssKb());
+                }
+            }
+        } catch (OutOfMemoryError e) {
+            System.out.println("Limite atingido após " + criadas + " threads: " + e.getMessage());
+        }
+        
+        long criacaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        picoRssKb = Math.max(picoRssKb, ThreadsVirtuais.rssKb());
+        
+        for (int i = 0; i < criadas; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        long conclusaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        
+        if (criadas < N) {
+            return null;
+        }
+        long deltaRssKb = baseRssKb < 0 ? -1 : picoRssKb - baseRssKb;
+        return new long[]{criacaoMs, deltaRssKb, conclusaoMs};
+    }
 }
 
 
@@ -0,0 +1,105 @@
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Utilitário - Partições com first-touch paralelo e afinidade de worker
+ * Objetivo: Cada worker aloca e preenche a sua partição (a memória fica no
+ * nó NUMA/caches dele) e, com afinidade fixa, processa sempre a mesma
+ * partição nas execuções repetidas
+ */
+public class ParticoesLocais {
+    
+    /**
+     * Processa uma partição inteira e devolve o resultado parcial
+     */
+    interface KernelParticao {
+        long processar(int[] particao);
+    }
+    
+    private final int numWorkers;
+    private final int[][] particoes;
+    private final ResultadosParciais parciais;
+    private final CyclicBarrier inicioRodada;
+    private final CyclicBarrier fimRodada;
+    private final Thread[] workers;
+    
+    // Escritos antes de inicioRodada.await(): a barreira publica para os workers
+    private KernelParticao kernel;
+    private boolean afinidadeFixa;
+    private int rodada;
+    private boolean encerrado;
+    
+    /**
+     * Cria os workers; o worker i aloca e preenche a partição i com
+     * gerador(índice global), como gerarVetor faria no vetor inteiro
+     */
+    public ParticoesLocais(int numWorkers, int tamanho, ReducaoParalela.MapaInt gerador) {
+        this.numWorkers = numWorkers;
+        this.particoes = new int[numWorkers][];
+        this.parciais = new ResultadosParciais(numWorkers);
+        this.inicioRodada = new CyclicBarrier(numWorkers + 1);
+        this.fimRodada = new CyclicBarrier(numWorkers + 1);
+        this.workers = new Thread[numWorkers];
+        
+        int tamanhoParticao = tamanho / numWorkers;
+        for (int i = 0; i < numWorkers; i++) {
+            int id = i;
+            int inicio = i * tamanhoParticao;
+            int fim = (i == numWorkers - 1) ? tamanho : (i + 1) * tamanhoParticao;
+            workers[i] = new Thread(() -> executarWorker(id, inicio, fim, gerador));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        aguardar(fimRodada); // Todas as partições alocadas e preenchidas
+    }
+    
+    private void executarWorker(int id, int inicio, int fim, ReducaoParalela.MapaInt gerador) {
+        // First-touch: alocação e escrita feitas por esta thread
+        int[] particao = new int[fim - inicio];
+        for (int j = 0; j < particao.length; j++) {
+            particao[j] = gerador.aplicar(inicio + j);
+        }
+        particoes[id] = particao;
+        aguardar(fimRodada);
+        
+        while (true) {
+            aguardar(inicioRodada);
+            if (encerrado) {
+                return;
+            }
+            // Fixa: sempre a própria partição; rotativa: muda a cada rodada
+            int alvo = afinidadeFixa ? id : (id + rodada) % numWorkers;
+            parciais.set(alvo, kernel.processar(particoes[alvo]));
+            aguardar(fimRodada);
+        }
+    }
+    
+    /**
+     * Executa uma rodada do kernel sobre todas as partições e reduz
+     */
+    public long executar(KernelParticao kernel, boolean afinidadeFixa) {
+        this.kernel = kernel;
+        this.afinidadeFixa = afinidadeFixa;
+        this.rodada++;
+        aguardar(inicioRodada);
+        aguardar(fimRodada);
+        return parciais.somar();
+    }
+    
+    /**
+     * Libera os workers (as partições ficam para o GC)
+     */
+    public void encerrar() {
+        encerrado = true;
+        aguardar(inicioRodada);
+    }
+    
+    private static void aguardar(CyclicBarrier barreira) {
+        try {
+            barreira.await();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rodada interrompida", e);
+        }
+    }
+}
\ No newline at end of file
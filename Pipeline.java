@@ -0,0 +1,377 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Atividade 8 (extensão) - Pipeline multi-etapas sobre filas de ints
+ * Objetivo: Generalizar produtor-consumidor em N etapas (ex.: parse → transform → aggregate),
+ * cada uma com seus workers e sua fila limitada, e achar a etapa gargalo
+ */
+public class Pipeline {
+    
+    private static final int TAMANHO_LOTE = 64;
+    
+    /**
+     * Função de uma etapa: recebe um item e produz o item da próxima etapa
+     */
+    interface Funcao {
+        int aplicar(int item);
+    }
+    
+    /**
+     * Combina os itens que saem da última etapa (deve ser associativo:
+     * os parciais de cada worker são combinados com a mesma função)
+     */
+    interface Agregador {
+        long combinar(long acumulado, long item);
+    }
+    
+    /**
+     * Canal entre etapas: fila limitada + sinal de fim de fluxo.
+     * Quando o último produtor do canal termina, o canal é fechado;
+     * consumidores saem ao ver o canal fechado E vazio (sem pílula).
+     */
+    static class Canal {
+        private final ProdutorConsumidor.FilaInt fila;
+        private final AtomicInteger produtoresAtivos;
+        private volatile boolean fechado = false;
+        
+        public Canal(ProdutorConsumidor.FilaInt fila, int numProdutores) {
+            this.fila = fila;
+            this.produtoresAtivos = new AtomicInteger(numProdutores);
+        }
+        
+        /**
+         * Chamado por cada produtor ao terminar; o último fecha o canal.
+         * A escrita volátil de 'fechado' vem depois de todas as publicações.
+         */
+        public void produtorTerminou() {
+            if (produtoresAtivos.decrementAndGet() == 0) {
+                fechado = true;
+            }
+        }
+        
+        /**
+         * Retira até 'maximo' itens; devolve -1 no fim do fluxo
+         */
+        public int receber(int[] destino, int maximo) throws InterruptedException {
+            while (true) {
+                int n = fila.tentarDrenar(destino, maximo);
+                if (n > 0) {
+                    return n;
+                }
+                if (fechado) {
+                    // Fechado: nada mais será publicado; conferir uma última vez
+                    n = fila.tentarDrenar(destino, maximo);
+                    return n > 0 ? n : -1;
+                }
+                ProdutorConsumidor.EstrategiaEspera.PARK.esperar();
+            }
+        }
+    }
+    
+    /**
+     * Etapa: nome, função, número de workers e canal de entrada.
+     * Estatísticas são publicadas por cada worker uma vez, ao terminar.
+     */
+    static class Etapa {
+        private final String nome;
+        private final Funcao funcao;
+        private final int numWorkers;
+        private final int capacidade;
+        private Canal entrada;
+        
+        private final AtomicInteger workersAtivos;
+        private long itensProcessados = 0;     // Protegido por 'this'
+        private long ocupadoNs = 0;            // Tempo processando (sem esperar filas)
+        private long ocupacaoSomada = 0;       // Amostras do monitor
+        private long amostrasOcupacao = 0;
+        private int ocupacaoMaxima = 0;
+        private long inicioNs, fimNs;
+        
+        public Etapa(String nome, int numWorkers, int capacidade, Funcao funcao) {
+            this.nome = nome;
+            this.funcao = funcao;
+            this.numWorkers = numWorkers;
+            this.capacidade = capacidade;
+            this.workersAtivos = new AtomicInteger(numWorkers);
+        }
+        
+        synchronized void registrarWorker(long itens, long ocupado) {
+            itensProcessados += itens;
+            ocupadoNs += ocupado;
+        }
+        
+        void amostrarOcupacao() {
+            int ocupacao = entrada.fila.tamanho();
+            ocupacaoSomada += ocupacao;
+            amostrasOcupacao++;
+            ocupacaoMaxima = Math.max(ocupacaoMaxima, ocupacao);
+        }
+    }
+    
+    /**
+     * Worker de uma etapa: recebe lotes, aplica a função e publica o lote
+     * resultante na próxima etapa (ou agrega, se for a última).
+     */
+    static class Worker implements Runnable {
+        private final Etapa etapa;
+        private final Canal saida;            // null na última etapa
+        private final Agregador agregador;
+        private long acumulado;
+        
+        public Worker(Etapa etapa, Canal saida, Agregador agregador, long identidade) {
+            this.etapa = etapa;
+            this.saida = saida;
+            this.agregador = agregador;
+            this.acumulado = identidade;
+        }
+        
+        @Override
+        public void run() {
+            int[] lote = new int[TAMANHO_LOTE];
+            int[] resultado = new int[TAMANHO_LOTE];
+            long processados = 0;
+            long esperandoNs = 0; // Entrada vazia ou saída cheia
+            long inicio = System.nanoTime();
+            
+            try {
+                while (true) {
+                    long antes = System.nanoTime();
+                    int n = etapa.entrada.receber(lote, TAMANHO_LOTE);
+                    esperandoNs += System.nanoTime() - antes;
+                    if (n < 0) {
+                        break; // Fim de fluxo
+                    }
+                    
+                    if (saida != null) {
+                        for (int i = 0; i < n; i++) {
+                            resultado[i] = etapa.funcao.aplicar(lote[i]);
+                        }
+                        esperandoNs += saida.fila.putLote(resultado, n);
+                    } else {
+                        for (int i = 0; i < n; i++) {
+                            acumulado = agregador.combinar(acumulado, etapa.funcao.aplicar(lote[i]));
+                        }
+                    }
+                    processados += n;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                e.printStackTrace();
+            } finally {
+                etapa.registrarWorker(processados, System.nanoTime() - inicio - esperandoNs);
+                if (etapa.workersAtivos.decrementAndGet() == 0) {
+                    etapa.fimNs = System.nanoTime();
+                }
+                // Fim de fluxo se propaga: o último worker desta etapa fecha o próximo canal
+                if (saida != null) {
+                    saida.produtorTerminou();
+                }
+            }
+        }
+    }
+    
+    private final List<Etapa> etapas = new ArrayList<>();
+    private final String backend;
+    private final List<Thread> threads = new ArrayList<>();
+    private final List<Worker> workersFinais = new ArrayList<>();
+    private Agregador agregador;
+    private long identidade;
+    private Thread monitor;
+    private volatile boolean monitorando;
+    private int[] loteEnvio;
+    private int pendentesEnvio;
+    
+    /**
+     * Cria um pipeline cujas filas usam o backend indicado
+     * ("anel-mpmc", "linked" ou "array"; ver ProdutorConsumidor.criarFila)
+     */
+    public Pipeline(String backend) {
+        this.backend = backend;
+    }
+    
+    /**
+     * Adiciona uma etapa ao final do pipeline
+     */
+    public void adicionarEtapa(String nome, int numWorkers, int capacidadeFila, Funcao funcao) {
+        etapas.add(new Etapa(nome, numWorkers, capacidadeFila, funcao));
+    }
+    
+    /**
+     * Cria canais e workers, e inicia o monitor de ocupação das filas
+     */
+    public void iniciar(Agregador agregador, long identidade) {
+        this.agregador = agregador;
+        this.identidade = identidade;
+        this.loteEnvio = new int[TAMANHO_LOTE];
+        
+        // Canal de entrada de cada etapa: produtores = workers da etapa anterior
+        int produtores = 1; // A primeira etapa é alimentada por quem chama enviar()
+        for (Etapa etapa : etapas) {
+            etapa.entrada = new Canal(ProdutorConsumidor.criarFila(backend, etapa.capacidade,
+                                      ProdutorConsumidor.EstrategiaEspera.PARK),
+                                      produtores);
+            produtores = etapa.numWorkers;
+        }
+        
+        long agora = System.nanoTime();
+        for (int e = 0; e < etapas.size(); e++) {
+            Etapa etapa = etapas.get(e);
+            Canal saida = (e + 1 < etapas.size()) ? etapas.get(e + 1).entrada : null;
+            etapa.inicioNs = agora;
+            for (int w = 0; w < etapa.numWorkers; w++) {
+                Worker worker = new Worker(etapa, saida, agregador, identidade);
+                if (saida == null) {
+                    workersFinais.add(worker);
+                }
+                Thread t = new Thread(worker, etapa.nome + "-" + w);
+                threads.add(t);
+                t.start();
+            }
+        }
+        
+        // Monitor: amostra a ocupação de cada fila a cada ~1 ms
+        monitorando = true;
+        monitor = new Thread(() -> {
+            while (monitorando) {
+                for (Etapa etapa : etapas) {
+                    etapa.amostrarOcupacao();
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "monitor-pipeline");
+        monitor.setDaemon(true);
+        monitor.start();
+    }
+    
+    /**
+     * Envia um item para a primeira etapa (agrupado em lotes)
+     */
+    public void enviar(int item) throws InterruptedException {
+        loteEnvio[pendentesEnvio++] = item;
+        if (pendentesEnvio == loteEnvio.length) {
+            etapas.get(0).entrada.fila.putLote(loteEnvio, pendentesEnvio);
+            pendentesEnvio = 0;
+        }
+    }
+    
+    /**
+     * Sinaliza fim de fluxo, aguarda todas as etapas e devolve o agregado
+     */
+    public long encerrar() throws InterruptedException {
+        Canal primeiro = etapas.get(0).entrada;
+        if (pendentesEnvio > 0) {
+            primeiro.fila.putLote(loteEnvio, pendentesEnvio);
+            pendentesEnvio = 0;
+        }
+        primeiro.produtorTerminou();
+        
+        for (Thread t : threads) {
+            t.join();
+        }
+        monitorando = false;
+        monitor.join();
+        
+        // Combinar os parciais dos workers da última etapa
+        long total = identidade;
+        for (Worker w : workersFinais) {
+            total = agregador.combinar(total, w.acumulado);
+        }
+        return total;
+    }
+    
+    /**
+     * Tabela por etapa: vazão, ocupação da fila de entrada e utilização dos workers.
+     * O gargalo é a etapa com workers mais ocupados: as filas ANTES dele enchem
+     * (contrapressão) e as filas DEPOIS dele ficam quase vazias.
+     */
+    public void imprimirEstatisticas() {
+        System.out.println("| Etapa      | Workers |   Itens   | Itens/s  | Fila média | Fila máx | Capacidade | Utilização |");
+        System.out.println("|------------|---------|-----------|----------|------------|----------|------------|------------|");
+        
+        Etapa gargalo = null;
+        double maiorUtilizacao = -1;
+        for (Etapa etapa : etapas) {
+            long duracaoNs = etapa.fimNs - etapa.inicioNs;
+            double media = etapa.amostrasOcupacao == 0 ? 0
+                         : (double) etapa.ocupacaoSomada / etapa.amostrasOcupacao;
+            double utilizacao = (double) etapa.ocupadoNs / ((double) duracaoNs * etapa.numWorkers);
+            if (utilizacao > maiorUtilizacao) {
+                maiorUtilizacao = utilizacao;
+                gargalo = etapa;
+            }
+            System.out.printf("| %-10s | %7d | %9d | %8.3g | %10.1f | %8d | %10d | %9.1f%% |\n",
+                            etapa.nome, etapa.numWorkers, etapa.itensProcessados,
+                            etapa.itensProcessados / (duracaoNs / 1e9), media,
+                            etapa.ocupacaoMaxima, etapa.capacidade, utilizacao * 100);
+        }
+        
+        if (gargalo != null) {
+            System.out.printf("Gargalo provável: '%s' (workers %.0f%% do tempo processando)\n",
+                            gargalo.nome, maiorUtilizacao * 100);
+        }
+    }
+    
+    /**
+     * Trabalho sintético de CPU (iterações de um hash simples)
+     */
+    static int trabalhar(int item, int iteracoes) {
+        int h = item;
+        for (int i = 0; i < iteracoes; i++) {
+            h = h * 31 + 0x9E3779B9;
+            h ^= h >>> 15;
+        }
+        return h;
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== Atividade 8 (extensão) - Pipeline Multi-Etapas ===\n");
+        
+        int numItens = 2_000_000;
+        int capacidade = 1024;
+        
+        // Referência sequencial: parse (leve) → transform (pesado) → aggregate (soma)
+        long esperado = 0;
+        for (int i = 0; i < numItens; i++) {
+            esperado += trabalhar(trabalhar(i, 10), 100) & 0xFF;
+        }
+        
+        int[][] configuracoes = {{1, 1, 1}, {1, 3, 1}, {1, 6, 1}};
+        
+        for (int[] workers : configuracoes) {
+            System.out.println("--- Workers por etapa: parse=" + workers[0] +
+                             ", transform=" + workers[1] + ", aggregate=" + workers[2] + " ---\n");
+            
+            Pipeline pipeline = new Pipeline("anel-mpmc");
+            pipeline.adicionarEtapa("parse", workers[0], capacidade, item -> trabalhar(item, 10));
+            pipeline.adicionarEtapa("transform", workers[1], capacidade, item -> trabalhar(item, 100));
+            pipeline.adicionarEtapa("aggregate", workers[2], capacidade, item -> item & 0xFF);
+            
+            long inicio = System.nanoTime();
+            pipeline.iniciar((acumulado, item) -> acumulado + item, 0);
+            for (int i = 0; i < numItens; i++) {
+                pipeline.enviar(i);
+            }
+            long resultado = pipeline.encerrar();
+            long tempoMs = (System.nanoTime() - inicio) / 1_000_000;
+            
+            pipeline.imprimirEstatisticas();
+            System.out.println("Tempo total: " + tempoMs + " ms | Resultado: " + resultado +
+                             " | Correto: " + (resultado == esperado ? "SIM ✓" : "NÃO ✗") + "\n");
+        }
+        
+        System.out.println("--- ANÁLISE ---");
+        System.out.println("1. Cada etapa tem sua fila limitada: contrapressão entre etapas");
+        System.out.println("2. Gargalo: workers sempre ocupados, filas antes dele cheias,");
+        System.out.println("   filas depois dele quase vazias");
+        System.out.println("3. Dar mais workers ao gargalo aumenta a vazão do pipeline todo");
+        System.out.println("   (até o limite de cores, ou até outra etapa virar o gargalo)");
+        System.out.println("4. Fim de fluxo propagado: o último worker de uma etapa fecha o");
+        System.out.println("   canal seguinte; sem pílula, nenhum valor de item é reservado");
+    }
+}
\ No newline at end of file
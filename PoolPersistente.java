@@ -0,0 +1,107 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Utilitário - Conjunto fixo de workers quentes reaproveitado entre execuções
+ * Objetivo: Tirar a criação/join de threads do caminho crítico; cada
+ * execução é entregue por uma troca de fase (contador volátil + park/unpark)
+ */
+public class PoolPersistente {
+    
+    // Tentativas com yield antes de estacionar à espera da próxima fase
+    private static final int GIROS = 64;
+    
+    /**
+     * Trabalho de uma execução: cada worker recebe seu índice
+     */
+    interface TarefaWorker {
+        void executar(int worker, int numWorkers);
+    }
+    
+    private final Thread[] workers;
+    private final AtomicInteger pendentes = new AtomicInteger();
+    
+    // tarefa/chamador são escritos antes do incremento volátil de fase
+    private TarefaWorker tarefa;
+    private Thread chamador;
+    private volatile long fase = 0;
+    private volatile boolean encerrado = false;
+    private volatile Throwable erro;
+    
+    public PoolPersistente(int numWorkers) {
+        this.workers = new Thread[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            int id = i;
+            workers[i] = new Thread(() -> executarWorker(id), "persistente-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+    
+    public int numWorkers() {
+        return workers.length;
+    }
+    
+    private void executarWorker(int id) {
+        long faseVista = 0;
+        while (true) {
+            int giros = 0;
+            while (fase == faseVista) {
+                if (encerrado) {
+                    return;
+                }
+                if (giros++ < GIROS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            faseVista = fase;
+            if (encerrado) {
+                return;
+            }
+            
+            try {
+                tarefa.executar(id, workers.length);
+            } catch (Throwable t) {
+                erro = t;
+            } finally {
+                if (pendentes.decrementAndGet() == 0) {
+                    LockSupport.unpark(chamador);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Executa a tarefa em todos os workers e espera todos terminarem
+     */
+    public synchronized void executar(TarefaWorker tarefa) {
+        if (encerrado) {
+            throw new IllegalStateException("Pool encerrado");
+        }
+        this.tarefa = tarefa;
+        this.chamador = Thread.currentThread();
+        this.erro = null;
+        pendentes.set(workers.length);
+        fase = fase + 1; // Único escritor (synchronized): publica a tarefa
+        
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        while (pendentes.get() != 0) {
+            LockSupport.park(this);
+        }
+        
+        if (erro != null) {
+            throw new IllegalStateException("Falha em um worker", erro);
+        }
+    }
+    
+    public void encerrar() {
+        encerrado = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+}
\ No newline at end of file
@@ -1,6 +1,12 @@
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Atividade 8 - Produtor–Consumidor com fila bloqueante
@@ -15,6 +21,14 @@ public class ProdutorConsumidor {
     private static AtomicInteger totalProduzido = new AtomicInteger(0);
     private static AtomicInteger totalConsumido = new AtomicInteger(0);
     
+    // Latência fim-a-fim (put → consumo) por item, mesclada uma vez por consumidor
+    private static Histograma latenciaConsumo = new Histograma();
+    
+    // Contrapressão da última execução com produtores em lote (mesclada no final)
+    private static Histograma bloqueioProdutores = new Histograma();
+    private static long nsBloqueadosProdutores = 0;
+    private static long lotesProdutores = 0;
+    
     /**
      * Produtor: insere itens na fila
      */
@@ -104,7 +118,623 @@ public class ProdutorConsumidor {
         }
     }
     
+    /**
+     * Fila de ints primitivos (sem boxing nas implementações em anel)
+     */
+    interface FilaInt {
+        void put(int item) throws InterruptedException;
+        int take() throws InterruptedException;
+        
+        /**
+         * Bloqueia até haver ao menos 1 item e retira até 'maximo' de uma vez.
+         * Devolve quantos itens foram copiados para 'destino'.
+         */
+        int drenar(int[] destino, int maximo) throws InterruptedException;
+        
+        /**
+         * Como drenar, mas sem bloquear: devolve 0 se a fila está vazia
+         */
+        int tentarDrenar(int[] destino, int maximo);
+        
+        /**
+         * Número aproximado de itens na fila (para monitoramento)
+         */
+        int tamanho();
+        
+        /**
+         * Publica os 'quantidade' primeiros itens de 'itens', reservando faixas
+         * inteiras de posições de uma vez. Devolve o tempo (ns) que passou
+         * bloqueado esperando espaço na fila (contrapressão).
+         */
+        long putLote(int[] itens, int quantidade) throws InterruptedException;
+    }
+    
+    /**
+     * O que fazer enquanto a fila em anel está cheia (produtor) ou vazia (consumidor)
+     */
+    enum EstrategiaEspera {
+        SPIN,  // Espera ocupada: reage em ns, mas queima 100% de um core
+        YIELD, // sched_yield: ~1 µs de syscall, volta na hora se ninguém mais está pronto
+        PARK;  // parkNanos(1 µs) pede 1 µs, mas o timer slack do Linux (50 µs
+               // por padrão) faz a thread dormir tipicamente dezenas de µs:
+               // quase não gasta CPU, paga essa latência a cada espera
+        
+        void esperar() throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            switch (this) {
+                case SPIN:
+                    break;
+                case YIELD:
+                    Thread.yield();
+                    break;
+                case PARK:
+                    LockSupport.parkNanos(1_000);
+                    break;
+            }
+        }
+    }
+    
+    // Padding por herança: a JVM não reordena campos entre classe-pai e filha,
+    // então 'valor' fica isolado em sua própria linha de cache
+    static class PadEsquerda {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+    
+    static class ValorSequencia extends PadEsquerda {
+        volatile long valor;
+    }
+    
+    /**
+     * Contador de sequência com padding (evita false sharing entre cabeça e cauda)
+     */
+    static class SequenciaPadded extends ValorSequencia {
+        long p9, p10, p11, p12, p13, p14, p15;
+        
+        private static final AtomicLongFieldUpdater<ValorSequencia> ATUALIZADOR =
+                AtomicLongFieldUpdater.newUpdater(ValorSequencia.class, "valor");
+        
+        public long get() {
+            return valor;
+        }
+        
+        /**
+         * Escrita com semântica de release (mais barata que escrita volátil)
+         */
+        public void setOrdenado(long novo) {
+            ATUALIZADOR.lazySet(this, novo);
+        }
+        
+        public boolean cas(long esperado, long novo) {
+            return ATUALIZADOR.compareAndSet(this, esperado, novo);
+        }
+    }
+    
+    /**
+     * Fila em anel UM produtor / UM consumidor sobre int[] pré-alocado.
+     * Sem CAS: cada lado só escreve no seu próprio contador.
+     */
+    static class FilaAnelSPSC implements FilaInt {
+        private final int[] buffer;
+        private final int mascara;
+        private final EstrategiaEspera espera;
+        private final SequenciaPadded cabeca = new SequenciaPadded(); // Próxima posição a ler
+        private final SequenciaPadded cauda = new SequenciaPadded();  // Próxima posição a escrever
+        
+        public FilaAnelSPSC(int capacidadeMinima, EstrategiaEspera espera) {
+            int capacidade = potenciaDe2(capacidadeMinima);
+            this.buffer = new int[capacidade];
+            this.mascara = capacidade - 1;
+            this.espera = espera;
+        }
+        
+        @Override
+        public void put(int item) throws InterruptedException {
+            long t = cauda.get();
+            while (t - cabeca.get() == buffer.length) {
+                espera.esperar(); // Cheia
+            }
+            buffer[(int) t & mascara] = item;
+            cauda.setOrdenado(t + 1); // Publica o item para o consumidor
+        }
+        
+        @Override
+        public int take() throws InterruptedException {
+            long h = cabeca.get();
+            while (h == cauda.get()) {
+                espera.esperar(); // Vazia
+            }
+            int item = buffer[(int) h & mascara];
+            cabeca.setOrdenado(h + 1); // Libera a posição para o produtor
+            return item;
+        }
+        
+        @Override
+        public long putLote(int[] itens, int quantidade) throws InterruptedException {
+            long bloqueadoNs = 0;
+            int publicados = 0;
+            long t = cauda.get();
+            
+            while (publicados < quantidade) {
+                long livres = buffer.length - (t - cabeca.get());
+                if (livres == 0) {
+                    long inicio = System.nanoTime();
+                    do {
+                        espera.esperar(); // Cheia
+                    } while (t - cabeca.get() == buffer.length);
+                    bloqueadoNs += System.nanoTime() - inicio;
+                    continue;
+                }
+                
+                // Reserva a faixa [t, t+n), copia e publica com uma escrita
+                int n = (int) Math.min(livres, quantidade - publicados);
+                for (int i = 0; i < n; i++) {
+                    buffer[(int) (t + i) & mascara] = itens[publicados + i];
+                }
+                t += n;
+                publicados += n;
+                cauda.setOrdenado(t);
+            }
+            return bloqueadoNs;
+        }
+        
+        @Override
+        public int drenar(int[] destino, int maximo) throws InterruptedException {
+            int n;
+            while ((n = tentarDrenar(destino, maximo)) == 0) {
+                espera.esperar(); // Vazia
+            }
+            return n;
+        }
+        
+        @Override
+        public int tentarDrenar(int[] destino, int maximo) {
+            long h = cabeca.get();
+            int n = (int) Math.min(maximo, cauda.get() - h);
+            for (int i = 0; i < n; i++) {
+                destino[i] = buffer[(int) (h + i) & mascara];
+            }
+            if (n > 0) {
+                cabeca.setOrdenado(h + n); // Libera o lote inteiro com uma escrita
+            }
+            return n;
+        }
+        
+        @Override
+        public int tamanho() {
+            return (int) (cauda.get() - cabeca.get());
+        }
+    }
+    
+    /**
+     * Fila em anel MÚLTIPLOS produtores / MÚLTIPLOS consumidores (algoritmo de Vyukov).
+     * Cada posição tem um número de sequência que diz se está livre ou ocupada;
+     * produtores disputam a cauda e consumidores a cabeça via CAS.
+     */
+    static class FilaAnelMPMC implements FilaInt {
+        private final int[] buffer;
+        private final AtomicLongArray sequencias;
+        private final int mascara;
+        private final EstrategiaEspera espera;
+        private final SequenciaPadded cabeca = new SequenciaPadded();
+        private final SequenciaPadded cauda = new SequenciaPadded();
+        
+        public FilaAnelMPMC(int capacidadeMinima, EstrategiaEspera espera) {
+            int capacidade = potenciaDe2(capacidadeMinima);
+            this.buffer = new int[capacidade];
+            this.sequencias = new AtomicLongArray(capacidade);
+            this.mascara = capacidade - 1;
+            this.espera = espera;
+            for (int i = 0; i < capacidade; i++) {
+                sequencias.set(i, i); // Posição i livre para a sequência i
+            }
+        }
+        
+        @Override
+        public void put(int item) throws InterruptedException {
+            while (true) {
+                long t = cauda.get();
+                int indice = (int) t & mascara;
+                long diferenca = sequencias.get(indice) - t;
+                
+                if (diferenca == 0) {
+                    if (cauda.cas(t, t + 1)) {
+                        buffer[indice] = item;
+                        sequencias.lazySet(indice, t + 1); // Marca como ocupada
+                        return;
+                    }
+                } else if (diferenca < 0) {
+                    espera.esperar(); // Cheia
+                }
+                // diferenca > 0: outro produtor avançou a cauda, tentar de novo
+            }
+        }
+        
+        @Override
+        public int take() throws InterruptedException {
+            while (true) {
+                long h = cabeca.get();
+                int indice = (int) h & mascara;
+                long diferenca = sequencias.get(indice) - (h + 1);
+                
+                if (diferenca == 0) {
+                    if (cabeca.cas(h, h + 1)) {
+                        int item = buffer[indice];
+                        sequencias.lazySet(indice, h + buffer.length); // Livre na próxima volta
+                        return item;
+                    }
+                } else if (diferenca < 0) {
+                    espera.esperar(); // Vazia
+                }
+            }
+        }
+        
+        @Override
+        public long putLote(int[] itens, int quantidade) throws InterruptedException {
+            long bloqueadoNs = 0;
+            int publicados = 0;
+            
+            while (publicados < quantidade) {
+                long t = cauda.get();
+                
+                // Contar posições livres consecutivas a partir da cauda
+                int livres = 0;
+                int restantes = quantidade - publicados;
+                while (livres < restantes &&
+                       sequencias.get((int) (t + livres) & mascara) == t + livres) {
+                    livres++;
+                }
+                
+                if (livres == 0) {
+                    if (sequencias.get((int) t & mascara) - t < 0) {
+                        long inicio = System.nanoTime();
+                        espera.esperar(); // Cheia
+                        bloqueadoNs += System.nanoTime() - inicio;
+                    }
+                    continue;
+                }
+                
+                // Um único CAS reserva a faixa; depois publica posição a posição
+                if (cauda.cas(t, t + livres)) {
+                    for (int i = 0; i < livres; i++) {
+                        int indice = (int) (t + i) & mascara;
+                        buffer[indice] = itens[publicados + i];
+                        sequencias.lazySet(indice, t + i + 1);
+                    }
+                    publicados += livres;
+                }
+            }
+            return bloqueadoNs;
+        }
+        
+        @Override
+        public int drenar(int[] destino, int maximo) throws InterruptedException {
+            int n;
+            while ((n = tentarDrenar(destino, maximo)) == 0) {
+                espera.esperar(); // Vazia
+            }
+            return n;
+        }
+        
+        @Override
+        public int tentarDrenar(int[] destino, int maximo) {
+            while (true) {
+                long h = cabeca.get();
+                
+                // Contar posições consecutivas já publicadas a partir da cabeça
+                int prontos = 0;
+                while (prontos < maximo &&
+                       sequencias.get((int) (h + prontos) & mascara) == h + prontos + 1) {
+                    prontos++;
+                }
+                
+                if (prontos == 0) {
+                    if (sequencias.get((int) h & mascara) - (h + 1) < 0) {
+                        return 0; // Vazia
+                    }
+                    continue; // Outro consumidor avançou a cabeça
+                }
+                
+                // Um único CAS reserva o lote inteiro
+                if (cabeca.cas(h, h + prontos)) {
+                    for (int i = 0; i < prontos; i++) {
+                        int indice = (int) (h + i) & mascara;
+                        destino[i] = buffer[indice];
+                        sequencias.lazySet(indice, h + i + buffer.length);
+                    }
+                    return prontos;
+                }
+            }
+        }
+        
+        @Override
+        public int tamanho() {
+            return (int) Math.max(0, cauda.get() - cabeca.get());
+        }
+    }
+    
+    /**
+     * Adaptador: BlockingQueue<Integer> do JDK vista como FilaInt (com boxing)
+     */
+    static class FilaBloqueante implements FilaInt {
+        private final BlockingQueue<Integer> fila;
+        
+        // Lista de apoio do drainTo, uma por thread consumidora
+        private final ThreadLocal<ArrayList<Integer>> apoio = ThreadLocal.withInitial(ArrayList::new);
+        
+        public FilaBloqueante(BlockingQueue<Integer> fila) {
+            this.fila = fila;
+        }
+        
+        @Override
+        public void put(int item) throws InterruptedException {
+            fila.put(item);
+        }
+        
+        @Override
+        public int take() throws InterruptedException {
+            return fila.take();
+        }
+        
+        @Override
+        public long putLote(int[] itens, int quantidade) throws InterruptedException {
+            // BlockingQueue não tem put em lote: offer() e, se cheia, put() cronometrado
+            long bloqueadoNs = 0;
+            for (int i = 0; i < quantidade; i++) {
+                if (!fila.offer(itens[i])) {
+                    long inicio = System.nanoTime();
+                    fila.put(itens[i]);
+                    bloqueadoNs += System.nanoTime() - inicio;
+                }
+            }
+            return bloqueadoNs;
+        }
+        
+        @Override
+        public int drenar(int[] destino, int maximo) throws InterruptedException {
+            destino[0] = fila.take(); // Bloqueia pelo primeiro
+            if (maximo == 1) {
+                return 1;
+            }
+            ArrayList<Integer> lista = apoio.get();
+            lista.clear();
+            fila.drainTo(lista, maximo - 1); // Demais itens com uma aquisição do lock
+            for (int i = 0; i < lista.size(); i++) {
+                destino[i + 1] = lista.get(i);
+            }
+            return lista.size() + 1;
+        }
+        
+        @Override
+        public int tentarDrenar(int[] destino, int maximo) {
+            ArrayList<Integer> lista = apoio.get();
+            lista.clear();
+            fila.drainTo(lista, maximo);
+            for (int i = 0; i < lista.size(); i++) {
+                destino[i] = lista.get(i);
+            }
+            return lista.size();
+        }
+        
+        @Override
+        public int tamanho() {
+            return fila.size();
+        }
+    }
+    
+    /**
+     * Histograma com baldes logarítmicos (estilo HDR): 16 sub-baldes lineares
+     * por potência de 2, erro relativo ≤ 1/16. Um escritor por instância
+     * (sem sincronização); histogramas de várias threads são mesclados no final.
+     */
+    static class Histograma {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_BALDES = 1 << SUB_BITS;
+        
+        private final long[] contagens = new long[(64 - SUB_BITS) * SUB_BALDES];
+        private long total = 0;
+        private long soma = 0;
+        private long maximo = 0;
+        
+        static int indice(long valor) {
+            if (valor < SUB_BALDES) {
+                return (int) valor; // Valores pequenos: exatos
+            }
+            int expoente = 63 - Long.numberOfLeadingZeros(valor);
+            int sub = (int) (valor >>> (expoente - SUB_BITS)) & (SUB_BALDES - 1);
+            return (expoente - SUB_BITS + 1) * SUB_BALDES + sub;
+        }
+        
+        /**
+         * Maior valor que cai no balde (estimativa conservadora)
+         */
+        static long limiteSuperior(int indice) {
+            if (indice < SUB_BALDES) {
+                return indice;
+            }
+            int expoente = indice / SUB_BALDES + SUB_BITS - 1;
+            long sub = indice % SUB_BALDES;
+            return ((SUB_BALDES + sub + 1) << (expoente - SUB_BITS)) - 1;
+        }
+        
+        public void registrar(long valor) {
+            if (valor < 0) {
+                valor = 0;
+            }
+            contagens[indice(valor)]++;
+            total++;
+            soma += valor;
+            if (valor > maximo) {
+                maximo = valor;
+            }
+        }
+        
+        public void mesclar(Histograma outro) {
+            for (int i = 0; i < contagens.length; i++) {
+                contagens[i] += outro.contagens[i];
+            }
+            total += outro.total;
+            soma += outro.soma;
+            maximo = Math.max(maximo, outro.maximo);
+        }
+        
+        public long total() {
+            return total;
+        }
+        
+        public long maximo() {
+            return maximo;
+        }
+        
+        public double media() {
+            return total == 0 ? 0 : (double) soma / total;
+        }
+        
+        public long percentil(double p) {
+            if (total == 0) {
+                return 0;
+            }
+            long alvo = (long) Math.ceil(p / 100.0 * total);
+            long acumulado = 0;
+            for (int i = 0; i < contagens.length; i++) {
+                acumulado += contagens[i];
+                if (acumulado >= alvo) {
+                    return Math.min(limiteSuperior(i), maximo);
+                }
+            }
+            return maximo;
+        }
+    }
+    
+    /**
+     * Produtor em LOTES: monta 'tamanhoLote' carimbos de tempo e publica a
+     * faixa inteira com putLote; registra cada episódio de bloqueio (fila cheia)
+     * em um histograma próprio.
+     */
+    static class ProdutorLote implements Runnable {
+        private final FilaInt fila;
+        private final int numItens;
+        private final int tamanhoLote;
+        private final Histograma bloqueios = new Histograma(); // ns por lote bloqueado
+        private long lotes = 0;
+        private long bloqueadoNs = 0;
+        
+        public ProdutorLote(FilaInt fila, int numItens, int tamanhoLote) {
+            this.fila = fila;
+            this.numItens = numItens;
+            this.tamanhoLote = tamanhoLote;
+        }
+        
+        @Override
+        public void run() {
+            int[] lote = new int[tamanhoLote];
+            try {
+                for (int i = 0; i < numItens; i += tamanhoLote) {
+                    int n = Math.min(tamanhoLote, numItens - i);
+                    int carimbo = carimboNs();
+                    for (int j = 0; j < n; j++) {
+                        lote[j] = carimbo;
+                    }
+                    
+                    long bloqueado = fila.putLote(lote, n);
+                    if (bloqueado > 0) {
+                        bloqueios.registrar(bloqueado);
+                        bloqueadoNs += bloqueado;
+                    }
+                    lotes++;
+                    totalProduzido.addAndGet(n); // Um CAS por lote
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Consumidor em LOTES: drena até 'tamanhoLote' itens por vez e atualiza
+     * os totais compartilhados uma vez por lote (não uma vez por item).
+     * Os itens são carimbos de tempo (ns): a latência de cada item vai para um
+     * histograma da própria thread, mesclado no global só ao terminar.
+     */
+    static class ConsumidorLote implements Runnable {
+        private final FilaInt fila;
+        private final int tamanhoLote;
+        
+        public ConsumidorLote(FilaInt fila, int tamanhoLote) {
+            this.fila = fila;
+            this.tamanhoLote = tamanhoLote;
+        }
+        
+        @Override
+        public void run() {
+            int[] lote = new int[tamanhoLote];
+            Histograma latencias = new Histograma();
+            
+            try {
+                while (true) {
+                    int n = fila.drenar(lote, tamanhoLote);
+                    int agora = carimboNs();
+                    
+                    int validos = 0;
+                    while (validos < n && lote[validos] != POISON_PILL) {
+                        latencias.registrar(decorridoNs(lote[validos], agora));
+                        validos++;
+                    }
+                    
+                    totalConsumido.addAndGet(validos); // Um CAS por lote
+                    
+                    if (validos < n) {
+                        // Pílulas extras no lote pertencem a outros consumidores
+                        for (int i = validos + 1; i < n; i++) {
+                            fila.put(POISON_PILL);
+                        }
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                e.printStackTrace();
+            }
+            
+            mesclarLatencia(latencias);
+        }
+    }
+    
+    static int potenciaDe2(int minimo) {
+        int capacidade = 1;
+        while (capacidade < minimo) {
+            capacidade <<= 1;
+        }
+        return capacidade;
+    }
+    
+    /**
+     * Cria a fila do backend indicado: "linked", "array", "anel-spsc" ou "anel-mpmc"
+     */
+    static FilaInt criarFila(String backend, int capacidade, EstrategiaEspera espera) {
+        switch (backend) {
+            case "linked":
+                return new FilaBloqueante(new LinkedBlockingQueue<>(capacidade));
+            case "array":
+                return new FilaBloqueante(new ArrayBlockingQueue<>(capacidade));
+            case "anel-spsc":
+                return new FilaAnelSPSC(capacidade, espera);
+            case "anel-mpmc":
+                return new FilaAnelMPMC(capacidade, espera);
+            default:
+                throw new IllegalArgumentException("Backend desconhecido: " + backend);
+        }
+    }
+    
     public static void main(String[] args) {
+        // Modo interno: uma linha do fan-out, executada em JVM nova pela tabela
+        if (args.length == 4 && args[0].equals("fanout")) {
+            ThreadsVirtuais.responderJvmPai(medirFanOut(Integer.parseInt(args[1]),
+                    args[2].equals("virtual"), Integer.parseInt(args[3])));
+        }
+        
         System.out.println("=== Atividade 8 - Produtor-Consumidor ===\n");
         
         int numProdutores = 2;
@@ -112,11 +742,19 @@ public class ProdutorConsumidor {
         int itensPorProdutor = 100;
         int totalItens = numProdutores * itensPorProdutor;
         
+        // Argumento opcional "virtual": produtores/consumidores em threads virtuais (JDK 21+)
+        boolean virtual = args.length > 0 && args[0].equals("virtual");
+        if (virtual && !ThreadsVirtuais.disponivel()) {
+            System.out.println("Threads virtuais exigem JDK 21+. Usando threads de plataforma.\n");
+            virtual = false;
+        }
+        
         System.out.println("Configuração:");
         System.out.println("- Produtores: " + numProdutores);
         System.out.println("- Consumidores: " + numConsumidores);
         System.out.println("- Itens por produtor: " + itensPorProdutor);
         System.out.println("- Total de itens: " + totalItens);
+        System.out.println("- Threads: " + (virtual ? "virtuais" : "plataforma"));
         System.out.println();
         
         // Criar fila bloqueante (capacidade limitada)
@@ -125,15 +763,13 @@ public class ProdutorConsumidor {
         // Criar e iniciar produtores
         Thread[] produtores = new Thread[numProdutores];
         for (int i = 0; i < numProdutores; i++) {
-            produtores[i] = new Thread(new Produtor(i, fila, itensPorProdutor));
-            produtores[i].start();
+            produtores[i] = ThreadsVirtuais.iniciar(new Produtor(i, fila, itensPorProdutor), virtual);
         }
         
         // Criar e iniciar consumidores
         Thread[] consumidores = new Thread[numConsumidores];
         for (int i = 0; i < numConsumidores; i++) {
-            consumidores[i] = new Thread(new Consumidor(i, fila));
-            consumidores[i].start();
+            consumidores[i] = ThreadsVirtuais.iniciar(new Consumidor(i, fila), virtual);
         }
         
         // Aguardar produtores terminarem
@@ -172,6 +808,105 @@ public class ProdutorConsumidor {
                           totalProduzido.get() == totalItens);
         System.out.println("Correto: " + (correto ? "SIM ✓" : "NÃO ✗"));
         
+        // Benchmark dos backends de fila, sem Thread.sleep nem logs
+        int capacidadeBench = 1024;
+        int itensBench = 500_000;
+        String[] backends = {"linked", "array", "anel-spsc", "anel-mpmc"};
+        
+        System.out.println("\n=== BENCHMARK DE FILAS (sem sleep, capacidade " + capacidadeBench +
+                         ", " + itensBench + " itens/produtor) ===\n");
+        System.out.println("| Backend   | Espera | 1P×1C (itens/s) | 2P×2C (itens/s) |");
+        System.out.println("|-----------|--------|-----------------|-----------------|");
+        
+        for (String backend : backends) {
+            boolean anel = backend.startsWith("anel");
+            EstrategiaEspera[] esperas = anel ? EstrategiaEspera.values() 
+                                              : new EstrategiaEspera[]{EstrategiaEspera.PARK};
+            for (EstrategiaEspera espera : esperas) {
+                double vazao1x1 = medirVazao(backend, espera, capacidadeBench, 1, 1, itensBench);
+                // SPSC não suporta mais de um produtor/consumidor
+                String vazao2x2 = backend.equals("anel-spsc") ? "-" 
+                        : String.format("%.3g", medirVazao(backend, espera, capacidadeBench, 2, 2, itensBench));
+                
+                System.out.printf("| %-9s | %-6s | %15.3g | %15s |\n",
+                                backend, anel ? espera.name().toLowerCase() : "-", vazao1x1, vazao2x2);
+            }
+        }
+        
+        // Consumo em lotes: vazão e latência por tamanho máximo de lote
+        System.out.println("\n=== CONSUMO EM LOTES (2P×2C, capacidade " + capacidadeBench + ") ===\n");
+        System.out.println("| Lote máx | linked (itens/s) | Latência (µs) | anel-mpmc (itens/s) | Latência (µs) |");
+        System.out.println("|----------|------------------|---------------|---------------------|---------------|");
+        
+        for (int lote : new int[]{1, 8, 64, 256}) {
+            double vazaoLinked = medirVazaoLote("linked", capacidadeBench, 2, 2, itensBench, lote);
+            double latLinked = latenciaMediaUs();
+            double vazaoAnel = medirVazaoLote("anel-mpmc", capacidadeBench, 2, 2, itensBench, lote);
+            double latAnel = latenciaMediaUs();
+            
+            System.out.printf("| %8d | %16.3g | %13.1f | %19.3g | %13.1f |\n",
+                            lote, vazaoLinked, latLinked, vazaoAnel, latAnel);
+        }
+        
+        // Contrapressão: quanto tempo os produtores ficam bloqueados por capacidade
+        System.out.println("\n=== CONTRAPRESSÃO (anel-mpmc, 2P×2C, lotes de 32) ===\n");
+        System.out.println("| Capacidade | Itens/s  | Lotes bloqueados | Tempo bloqueado | p50 (µs) | p99 (µs) | Máx (µs) |");
+        System.out.println("|------------|----------|------------------|-----------------|----------|----------|----------|");
+        
+        for (int capacidade : new int[]{16, 64, 256, 1024, 4096}) {
+            long inicio = System.nanoTime();
+            executarBenchProdutorLote(criarFila("anel-mpmc", capacidade, EstrategiaEspera.PARK),
+                                      2, 2, itensBench, 32);
+            long duracaoNs = System.nanoTime() - inicio;
+            
+            Histograma h = bloqueioProdutores;
+            double fracaoBloqueada = (double) nsBloqueadosProdutores / (2.0 * duracaoNs);
+            System.out.printf("| %10d | %8.3g | %15.1f%% | %14.1f%% | %8.1f | %8.1f | %8.1f |\n",
+                            capacidade, 2.0 * itensBench / (duracaoNs / 1e9),
+                            100.0 * h.total() / lotesProdutores, 100.0 * fracaoBloqueada,
+                            h.percentil(50) / 1000.0, h.percentil(99) / 1000.0, h.maximo() / 1000.0);
+        }
+        
+        // Distribuição da latência fim-a-fim por item (put → consumo)
+        System.out.println("\n=== LATÊNCIA POR ITEM (2P×2C, capacidade " + capacidadeBench + ", µs) ===\n");
+        System.out.println("| Backend   | Lote |    p50 |    p90 |    p99 |  p99.9 |     Máx |");
+        System.out.println("|-----------|------|--------|--------|--------|--------|---------|");
+        
+        for (String backend : new String[]{"linked", "array", "anel-mpmc"}) {
+            for (int lote : new int[]{1, 64}) {
+                medirVazaoLote(backend, capacidadeBench, 2, 2, itensBench, lote);
+                Histograma h = latenciaConsumo;
+                System.out.printf("| %-9s | %4d | %6.1f | %6.1f | %6.1f | %6.1f | %7.1f |\n",
+                                backend, lote, h.percentil(50) / 1000.0, h.percentil(90) / 1000.0,
+                                h.percentil(99) / 1000.0, h.percentil(99.9) / 1000.0, h.maximo() / 1000.0);
+            }
+        }
+        
+        // Fan-out: muitos produtores/consumidores bloqueantes (plataforma vs virtual)
+        int limitePlataforma = Integer.getInteger("nthread.limitePlataforma", 10_000);
+        System.out.println("\n=== FAN-OUT BLOQUEANTE (linked, 10 itens/produtor, sleep 1 ms/item) ===\n");
+        System.out.println("(cada linha roda em uma JVM nova; Δ RSS = pico - RSS antes de criar as threads)\n");
+        System.out.println("| Pares P+C | Tipo       | Criação (ms) | Δ RSS pico (MB) | Conclusão (ms) | Correto? |");
+        System.out.println("|-----------|------------|--------------|-----------------|----------------|----------|");
+        
+        for (int pares : new int[]{100, 1_000, 10_000, 100_000}) {
+            for (boolean usarVirtual : new boolean[]{false, true}) {
+                String tipo = usarVirtual ? "virtual" : "plataforma";
+                boolean possivel = usarVirtual ? ThreadsVirtuais.disponivel() : 2 * pares <= limitePlataforma;
+                long[] r = possivel ? ThreadsVirtuais.executarEmNovaJvm(ProdutorConsumidor.class, "fanout",
+                        String.valueOf(pares), tipo, "10") : null;
+                if (r == null) {
+                    String motivo = usarVirtual && !possivel ? "JDK 21+" : "-";
+                    System.out.printf("| %9d | %-10s | %12s | %15s | %14s | %8s |\n",
+                                    pares, tipo, motivo, "-", "-", "-");
+                    continue;
+                }
+                System.out.printf("| %9d | %-10s | %12d | %15s | %14d | %8s |\n",
+                                pares, tipo, r[0], r[1] < 0 ? "-" : String.format("%.1f", r[1] / 1024.0), r[2],
+                                r[3] == 10L * pares ? "Sim ✓" : "Não ✗");
+            }
+        }
+        
         System.out.println("\n--- VANTAGENS DA BLOCKINGQUEUE ---");
         System.out.println("1. Thread-safe: Sincronização automática");
         System.out.println("2. Bloqueia automaticamente:");
@@ -180,5 +915,296 @@ public class ProdutorConsumidor {
         System.out.println("3. Controle de fluxo: Produtor não sobrecarrega consumidor");
         System.out.println("4. Sem race conditions: Implementação correta garantida");
         System.out.println("5. Poison pill pattern: Sinalização elegante de término");
+        System.out.println();
+        System.out.println("--- FILA EM ANEL (int[] pré-alocado) ---");
+        System.out.println("1. Sem nó por item nem boxing de Integer: zero alocação por item");
+        System.out.println("2. Cabeça e cauda com padding: produtor e consumidor não");
+        System.out.println("   disputam a mesma linha de cache");
+        System.out.println("3. SPSC: sem CAS (cada lado escreve só seu contador)");
+        System.out.println("4. MPMC: CAS na cauda/cabeça + sequência por posição");
+        System.out.println("5. Espera: spin (latência mínima, queima CPU), yield, park (economiza CPU,");
+        System.out.println("   mas cada park dura dezenas de µs por causa do timer slack do Linux)");
+        System.out.println();
+        System.out.println("--- CONSUMO EM LOTES (drainTo) ---");
+        System.out.println("1. Um lock (ou um CAS) por lote em vez de um por item");
+        System.out.println("2. Contadores compartilhados atualizados uma vez por lote");
+        System.out.println("3. Lotes maiores: mais vazão; a latência cai enquanto a fila");
+        System.out.println("   esvazia mais rápido, mas itens do fim do lote esperam os do início");
+        System.out.println();
+        System.out.println("--- PRODUÇÃO EM LOTES E CONTRAPRESSÃO ---");
+        System.out.println("1. putLote reserva uma faixa de posições e a publica de uma vez");
+        System.out.println("2. Cada episódio de fila cheia vira uma amostra no histograma");
+        System.out.println("3. Dimensionar a capacidade: a menor cuja fração de tempo");
+        System.out.println("   bloqueado e p99 de bloqueio caibam no orçamento de latência");
+        System.out.println();
+        System.out.println("--- LATÊNCIA POR ITEM ---");
+        System.out.println("1. O próprio item é o carimbo (int): sem boxing nem objeto extra");
+        System.out.println("2. Histograma por thread, sem sincronização no caminho quente");
+        System.out.println("3. Mesclagem uma vez por consumidor, ao terminar");
+        System.out.println("4. A cauda (p99/p99.9) mostra o atraso de fila que a média esconde");
+        System.out.println();
+        System.out.println("--- THREADS VIRTUAIS (JDK 21+) ---");
+        System.out.println("1. Trabalho bloqueante (sleep, I/O, take/put em fila bloqueante)");
+        System.out.println("   libera a thread do SO: dezenas de milhares de workers baratos");
+        System.out.println("2. Use filas bloqueantes (linked/array), não as filas em anel com spin");
+    }
+    
+    /**
+     * Mede a vazão (itens/s) de um backend com P produtores e C consumidores
+     */
+    static double medirVazao(String backend, EstrategiaEspera espera, int capacidade,
+                            int numProdutores, int numConsumidores, int itensPorProdutor) {
+        long totalItens = (long) numProdutores * itensPorProdutor;
+        Medidor.Resultado r = Medidor.medir(() -> 
+                executarBench(criarFila(backend, capacidade, espera),
+                              numProdutores, numConsumidores, itensPorProdutor));
+        return r.opsPorSegundo(totalItens);
+    }
+    
+    /**
+     * Produz e consome itens o mais rápido possível; devolve o total consumido
+     */
+    static long executarBench(FilaInt fila, int numProdutores, int numConsumidores, int itensPorProdutor) {
+        AtomicLong consumidos = new AtomicLong(0);
+        Thread[] produtores = new Thread[numProdutores];
+        Thread[] consumidores = new Thread[numConsumidores];
+        
+        for (int i = 0; i < numConsumidores; i++) {
+            consumidores[i] = new Thread(() -> {
+                long local = 0;
+                try {
+                    while (fila.take() != POISON_PILL) {
+                        local++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                consumidos.addAndGet(local); // Uma atualização compartilhada por consumidor
+            });
+            consumidores[i].start();
+        }
+        
+        for (int i = 0; i < numProdutores; i++) {
+            produtores[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < itensPorProdutor; j++) {
+                        fila.put(j);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            produtores[i].start();
+        }
+        
+        try {
+            for (Thread t : produtores) {
+                t.join();
+            }
+            // Uma pílula por consumidor
+            for (int i = 0; i < numConsumidores; i++) {
+                fila.put(POISON_PILL);
+            }
+            for (Thread t : consumidores) {
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        return consumidos.get();
+    }
+    
+    /**
+     * Carimbo de tempo: 32 bits baixos de nanoTime (sem boxing, cabe no int[]).
+     * Nunca devolve o valor da pílula.
+     */
+    static int carimboNs() {
+        int carimbo = (int) System.nanoTime();
+        return carimbo == POISON_PILL ? 0 : carimbo;
+    }
+    
+    /**
+     * Tempo entre dois carimbos; correto com overflow para intervalos < 2^32 ns (~4 s)
+     */
+    static long decorridoNs(int carimbo, int agora) {
+        return (agora - carimbo) & 0xFFFFFFFFL;
+    }
+    
+    static synchronized void mesclarLatencia(Histograma h) {
+        latenciaConsumo.mesclar(h);
+    }
+    
+    static double latenciaMediaUs() {
+        return latenciaConsumo.media() / 1000.0;
+    }
+    
+    /**
+     * Mede a vazão com consumidores em lote; deixa a latência da última medição
+     * disponível em latenciaMediaUs()
+     */
+    static double medirVazaoLote(String backend, int capacidade, int numProdutores,
+                                int numConsumidores, int itensPorProdutor, int tamanhoLote) {
+        long totalItens = (long) numProdutores * itensPorProdutor;
+        Medidor.Resultado r = Medidor.medir(() -> {
+            latenciaConsumo = new Histograma();
+        }, () -> executarBenchLote(criarFila(backend, capacidade, EstrategiaEspera.PARK),
+                                   numProdutores, numConsumidores, itensPorProdutor, tamanhoLote));
+        return r.opsPorSegundo(totalItens);
+    }
+    
+    /**
+     * Produtores publicam carimbos de tempo; consumidores drenam em lotes
+     */
+    static long executarBenchLote(FilaInt fila, int numProdutores, int numConsumidores,
+                                 int itensPorProdutor, int tamanhoLote) {
+        totalConsumido.set(0);
+        Thread[] produtores = new Thread[numProdutores];
+        Thread[] consumidores = new Thread[numConsumidores];
+        
+        for (int i = 0; i < numConsumidores; i++) {
+            consumidores[i] = new Thread(new ConsumidorLote(fila, tamanhoLote));
+            consumidores[i].start();
+        }
+        
+        for (int i = 0; i < numProdutores; i++) {
+            produtores[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < itensPorProdutor; j++) {
+                        fila.put(carimboNs());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            produtores[i].start();
+        }
+        
+        try {
+            for (Thread t : produtores) {
+                t.join();
+            }
+            for (int i = 0; i < numConsumidores; i++) {
+                fila.put(POISON_PILL);
+            }
+            for (Thread t : consumidores) {
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        return totalConsumido.get();
+    }
+    
+    /**
+     * Produtores em lote + consumidores em lote; mescla a contrapressão
+     * dos produtores em bloqueioProdutores
+     */
+    static long executarBenchProdutorLote(FilaInt fila, int numProdutores, int numConsumidores,
+                                         int itensPorProdutor, int tamanhoLote) {
+        totalProduzido.set(0);
+        totalConsumido.set(0);
+        ProdutorLote[] tarefas = new ProdutorLote[numProdutores];
+        Thread[] produtores = new Thread[numProdutores];
+        Thread[] consumidores = new Thread[numConsumidores];
+        
+        for (int i = 0; i < numConsumidores; i++) {
+            consumidores[i] = new Thread(new ConsumidorLote(fila, tamanhoLote));
+            consumidores[i].start();
+        }
+        
+        for (int i = 0; i < numProdutores; i++) {
+            tarefas[i] = new ProdutorLote(fila, itensPorProdutor, tamanhoLote);
+            produtores[i] = new Thread(tarefas[i]);
+            produtores[i].start();
+        }
+        
+        try {
+            for (Thread t : produtores) {
+                t.join();
+            }
+            for (int i = 0; i < numConsumidores; i++) {
+                fila.put(POISON_PILL);
+            }
+            for (Thread t : consumidores) {
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        // Mesclar histogramas por thread (após join: sem concorrência)
+        Histograma mesclado = new Histograma();
+        long bloqueado = 0, lotes = 0;
+        for (ProdutorLote tarefa : tarefas) {
+            mesclado.mesclar(tarefa.bloqueios);
+            bloqueado += tarefa.bloqueadoNs;
+            lotes += tarefa.lotes;
+        }
+        bloqueioProdutores = mesclado;
+        nsBloqueadosProdutores = bloqueado;
+        lotesProdutores = lotes;
+        
+        return totalConsumido.get();
+    }
+    
+    /**
+     * Fan-out: 'pares' produtores (10 itens cada, 1 ms por item) e 'pares'
+     * consumidores sobre uma LinkedBlockingQueue. Devolve {criação ms,
+     * aumento do RSS no pico em KB (pico - antes), conclusão ms, itens consumidos}.
+     */
+    static long[] medirFanOut(int pares, boolean virtual, int itensPorProdutor) {
+        BlockingQueue<Integer> fila = new LinkedBlockingQueue<>(1024);
+        AtomicLong consumidos = new AtomicLong(0);
+        Thread[] threads = new Thread[2 * pares];
+        long baseRssKb = ThreadsVirtuais.rssKb();
+        long picoRssKb = baseRssKb;
+        long inicio = System.nanoTime();
+        
+        for (int i = 0; i < pares; i++) {
+            threads[i] = ThreadsVirtuais.iniciar(() -> {
+                try {
+                    while (!fila.take().equals(POISON_PILL)) {
+                        consumidos.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, virtual);
+            threads[pares + i] = ThreadsVirtuais.iniciar(() -> {
+                try {
+                    for (int j = 0; j < itensPorProdutor; j++) {
+                        fila.put(j);
+                        Thread.sleep(1); // Trabalho bloqueante
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, virtual);
+            if (i % 500 == 499) {
+                picoRssKb = Math.max(picoRssKb, ThreadsVirtuais.rssKb());
+            }
+        }
+        long criacaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        picoRssKb = Math.max(picoRssKb, ThreadsVirtuais.rssKb());
+        
+        try {
+            for (int i = pares; i < 2 * pares; i++) {
+                threads[i].join();
+            }
+            for (int i = 0; i < pares; i++) {
+                fila.put(POISON_PILL);
+            }
+            for (int i = 0; i < pares; i++) {
+                threads[i].join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        long conclusaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        
+        long deltaRssKb = baseRssKb < 0 ? -1 : picoRssKb - baseRssKb;
+        return new long[]{criacaoMs, deltaRssKb, conclusaoMs, consumidos.get()};
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,390 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Utilitário - Map-reduce paralelo sobre arrays primitivos
+ * Objetivo: Separar a redução (mapa + combinação associativa) do
+ * particionamento e da árvore de redução, sem boxing (int/long/double)
+ */
+public class ReducaoParalela {
+    
+    // Tamanho mínimo de uma folha: abaixo disso o custo da tarefa domina
+    private static final int BLOCO_MINIMO = 16_384;
+    
+    // Folhas por thread: sobra trabalho para roubar se uma partição atrasar
+    private static final int FOLHAS_POR_THREAD = 8;
+    
+    // Um ForkJoinPool por nível de paralelismo, reaproveitado entre chamadas
+    private static final ConcurrentHashMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+    
+    // Funções de mapa (elemento → valor a reduzir)
+    interface MapaInt { int aplicar(int valor); }
+    interface MapaLong { long aplicar(long valor); }
+    interface MapaDouble { double aplicar(double valor); }
+    interface MapaIntLong { long aplicar(int valor); }
+    
+    // Combinações associativas (a identidade deve ser neutra)
+    interface CombinaInt { int combinar(int a, int b); }
+    interface CombinaLong { long combinar(long a, long b); }
+    interface CombinaDouble { double combinar(double a, double b); }
+    
+    // Folha escrita pelo chamador: reduz dados[inicio, fim) de uma vez. O laço
+    // quente fica no corpo da lambda, com perfil próprio por call site
+    interface FolhaIntLong { long reduzir(int[] dados, int inicio, int fim); }
+    
+    /**
+     * Nó da árvore de redução: divide [inicio, fim) ao meio até o limiar,
+     * reduz as folhas sequencialmente e combina os filhos na volta
+     */
+    @SuppressWarnings("serial") // Tarefas nunca são serializadas
+    abstract static class Reducao<R extends Reducao<R>> extends RecursiveAction {
+        final int inicio;
+        final int fim;
+        final int limiar;
+        
+        Reducao(int inicio, int fim, int limiar) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.limiar = limiar;
+        }
+        
+        abstract R filho(int inicio, int fim);
+        abstract void reduzirFolha();
+        abstract void juntar(R esquerda, R direita);
+        
+        @Override
+        protected void compute() {
+            if (fim - inicio <= limiar) {
+                reduzirFolha();
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            R esquerda = filho(inicio, meio);
+            R direita = filho(meio, fim);
+            esquerda.fork();
+            direita.compute();
+            esquerda.join();
+            juntar(esquerda, direita);
+        }
+    }
+    
+    @SuppressWarnings("serial")
+    static class ReducaoInt extends Reducao<ReducaoInt> {
+        private final int[] dados;
+        private final MapaInt mapa;
+        private final int identidade;
+        private final CombinaInt combina;
+        int resultado;
+        
+        ReducaoInt(int[] dados, int inicio, int fim, int limiar,
+                   MapaInt mapa, int identidade, CombinaInt combina) {
+            super(inicio, fim, limiar);
+            this.dados = dados;
+            this.mapa = mapa;
+            this.identidade = identidade;
+            this.combina = combina;
+        }
+        
+        @Override
+        ReducaoInt filho(int inicio, int fim) {
+            return new ReducaoInt(dados, inicio, fim, limiar, mapa, identidade, combina);
+        }
+        
+        @Override
+        void reduzirFolha() {
+            int acc = identidade;
+            for (int i = inicio; i < fim; i++) {
+                acc = combina.combinar(acc, mapa.aplicar(dados[i]));
+            }
+            resultado = acc;
+        }
+        
+        @Override
+        void juntar(ReducaoInt esquerda, ReducaoInt direita) {
+            resultado = combina.combinar(esquerda.resultado, direita.resultado);
+        }
+    }
+    
+    @SuppressWarnings("serial")
+    static class ReducaoIntLong extends Reducao<ReducaoIntLong> {
+        private final int[] dados;
+        private final MapaIntLong mapa;
+        private final long identidade;
+        private final CombinaLong combina;
+        long resultado;
+        
+        ReducaoIntLong(int[] dados, int inicio, int fim, int limiar,
+                       MapaIntLong mapa, long identidade, CombinaLong combina) {
+            super(inicio, fim, limiar);
+            this.dados = dados;
+            this.mapa = mapa;
+            this.identidade = identidade;
+            this.combina = combina;
+        }
+        
+        @Override
+        ReducaoIntLong filho(int inicio, int fim) {
+            return new ReducaoIntLong(dados, inicio, fim, limiar, mapa, identidade, combina);
+        }
+        
+        @Override
+        void reduzirFolha() {
+            long acc = identidade;
+            for (int i = inicio; i < fim; i++) {
+                acc = combina.combinar(acc, mapa.aplicar(dados[i]));
+            }
+            resultado = acc;
+        }
+        
+        @Override
+        void juntar(ReducaoIntLong esquerda, ReducaoIntLong direita) {
+            resultado = combina.combinar(esquerda.resultado, direita.resultado);
+        }
+    }
+    
+    @SuppressWarnings("serial")
+    static class ReducaoLong extends Reducao<ReducaoLong> {
+        private final long[] dados;
+        private final MapaLong mapa;
+        private final long identidade;
+        private final CombinaLong combina;
+        long resultado;
+        
+        ReducaoLong(long[] dados, int inicio, int fim, int limiar,
+                    MapaLong mapa, long identidade, CombinaLong combina) {
+            super(inicio, fim, limiar);
+            this.dados = dados;
+            this.mapa = mapa;
+            this.identidade = identidade;
+            this.combina = combina;
+        }
+        
+        @Override
+        ReducaoLong filho(int inicio, int fim) {
+            return new ReducaoLong(dados, inicio, fim, limiar, mapa, identidade, combina);
+        }
+        
+        @Override
+        void reduzirFolha() {
+            long acc = identidade;
+            for (int i = inicio; i < fim; i++) {
+                acc = combina.combinar(acc, mapa.aplicar(dados[i]));
+            }
+            resultado = acc;
+        }
+        
+        @Override
+        void juntar(ReducaoLong esquerda, ReducaoLong direita) {
+            resultado = combina.combinar(esquerda.resultado, direita.resultado);
+        }
+    }
+    
+    @SuppressWarnings("serial")
+    static class ReducaoDouble extends Reducao<ReducaoDouble> {
+        private final double[] dados;
+        private final MapaDouble mapa;
+        private final double identidade;
+        private final CombinaDouble combina;
+        double resultado;
+        
+        ReducaoDouble(double[] dados, int inicio, int fim, int limiar,
+                      MapaDouble mapa, double identidade, CombinaDouble combina) {
+            super(inicio, fim, limiar);
+            this.dados = dados;
+            this.mapa = mapa;
+            this.identidade = identidade;
+            this.combina = combina;
+        }
+        
+        @Override
+        ReducaoDouble filho(int inicio, int fim) {
+            return new ReducaoDouble(dados, inicio, fim, limiar, mapa, identidade, combina);
+        }
+        
+        @Override
+        void reduzirFolha() {
+            double acc = identidade;
+            for (int i = inicio; i < fim; i++) {
+                acc = combina.combinar(acc, mapa.aplicar(dados[i]));
+            }
+            resultado = acc;
+        }
+        
+        @Override
+        void juntar(ReducaoDouble esquerda, ReducaoDouble direita) {
+            resultado = combina.combinar(esquerda.resultado, direita.resultado);
+        }
+    }
+    
+    /**
+     * Folhas escritas pelo chamador: uma chamada por folha (não por
+     * elemento), então o laço de cada carga é compilado separadamente
+     */
+    @SuppressWarnings("serial")
+    static class ReducaoFolhaIntLong extends Reducao<ReducaoFolhaIntLong> {
+        private final int[] dados;
+        private final FolhaIntLong folha;
+        private final CombinaLong combina;
+        long resultado;
+        
+        ReducaoFolhaIntLong(int[] dados, int inicio, int fim, int limiar,
+                            FolhaIntLong folha, CombinaLong combina) {
+            super(inicio, fim, limiar);
+            this.dados = dados;
+            this.folha = folha;
+            this.combina = combina;
+        }
+        
+        @Override
+        ReducaoFolhaIntLong filho(int inicio, int fim) {
+            return new ReducaoFolhaIntLong(dados, inicio, fim, limiar, folha, combina);
+        }
+        
+        @Override
+        void reduzirFolha() {
+            resultado = folha.reduzir(dados, inicio, fim);
+        }
+        
+        @Override
+        void juntar(ReducaoFolhaIntLong esquerda, ReducaoFolhaIntLong direita) {
+            resultado = combina.combinar(esquerda.resultado, direita.resultado);
+        }
+    }
+    
+    /**
+     * Reduz int[] para int: combina(…combina(identidade, mapa(d0))…, mapa(dn-1)).
+     * As sobrecargas por elemento compartilham o laço de reduzirFolha: com
+     * mais de duas lambdas quentes a chamada fica megamórfica. Para cargas
+     * quentes, use reduzirPorFolha.
+     */
+    static int reduzir(int[] dados, MapaInt mapa, int identidade, CombinaInt combina, int numThreads) {
+        ReducaoInt raiz = new ReducaoInt(dados, 0, dados.length, limiar(dados.length, numThreads),
+                                         mapa, identidade, combina);
+        pool(numThreads).invoke(raiz);
+        return raiz.resultado;
+    }
+    
+    /**
+     * Reduz int[] para long (sem overflow do acumulador)
+     */
+    static long reduzirParaLong(int[] dados, MapaIntLong mapa, long identidade, CombinaLong combina,
+                                int numThreads) {
+        ReducaoIntLong raiz = new ReducaoIntLong(dados, 0, dados.length, limiar(dados.length, numThreads),
+                                                 mapa, identidade, combina);
+        pool(numThreads).invoke(raiz);
+        return raiz.resultado;
+    }
+    
+    /**
+     * Reduz int[] para long com a folha do chamador: mesmo desempenho do
+     * laço escrito à mão, independentemente de quantas cargas usam a API
+     */
+    static long reduzirPorFolha(int[] dados, FolhaIntLong folha, CombinaLong combina, int numThreads) {
+        ReducaoFolhaIntLong raiz = new ReducaoFolhaIntLong(dados, 0, dados.length,
+                                                           limiar(dados.length, numThreads), folha, combina);
+        pool(numThreads).invoke(raiz);
+        return raiz.resultado;
+    }
+    
+    /**
+     * Reduz long[] para long
+     */
+    static long reduzir(long[] dados, MapaLong mapa, long identidade, CombinaLong combina, int numThreads) {
+        ReducaoLong raiz = new ReducaoLong(dados, 0, dados.length, limiar(dados.length, numThreads),
+                                           mapa, identidade, combina);
+        pool(numThreads).invoke(raiz);
+        return raiz.resultado;
+    }
+    
+    /**
+     * Reduz double[] para double (a ordem de combinação muda o arredondamento)
+     */
+    static double reduzir(double[] dados, MapaDouble mapa, double identidade, CombinaDouble combina,
+                          int numThreads) {
+        ReducaoDouble raiz = new ReducaoDouble(dados, 0, dados.length, limiar(dados.length, numThreads),
+                                               mapa, identidade, combina);
+        pool(numThreads).invoke(raiz);
+        return raiz.resultado;
+    }
+    
+    /**
+     * Tamanho das folhas: ~FOLHAS_POR_THREAD folhas por thread, no mínimo BLOCO_MINIMO
+     */
+    static int limiar(int tamanho, int numThreads) {
+        long folhas = (long) numThreads * FOLHAS_POR_THREAD;
+        return (int) Math.max(BLOCO_MINIMO, (tamanho + folhas - 1) / folhas);
+    }
+    
+    /**
+     * ForkJoinPool compartilhado com o paralelismo indicado (criado na primeira vez)
+     */
+    static ForkJoinPool pool(int numThreads) {
+        return POOLS.computeIfAbsent(numThreads, ForkJoinPool::new);
+    }
+    
+    public static void main(String[] args) {
+        System.out.println("=== Map-Reduce Paralelo sobre Arrays Primitivos ===\n");
+        
+        int tamanho = 10_000_000;
+        int[] numThreadsArray = {1, 2, 4, 8};
+        int[] dados = SomaParalela.gerarVetor(tamanho);
+        
+        System.out.println("Configuração:");
+        System.out.println("- Tamanho: " + tamanho + " elementos");
+        System.out.println("- Folhas por thread: " + FOLHAS_POR_THREAD + " (mínimo " + BLOCO_MINIMO + " elementos)");
+        System.out.println();
+        
+        // As duas cargas existentes: laço escrito à mão vs mesma carga sobre a API
+        long esperadoSoma = SomaParalela.somaSequencial(dados);
+        long esperadoPool = ThreadPool.executarComPool(dados, 100, 1);
+        
+        System.out.println("| Carga          | Threads | À mão (ms) | Map-reduce (ms) | À mão/API | Correto? |");
+        System.out.println("|----------------|---------|------------|-----------------|-----------|----------|");
+        
+        for (int T : numThreadsArray) {
+            double maoSoma = Medidor.medir(2, 10, () -> SomaParalela.somaParalela(dados, T)).mediaMs();
+            double apiSoma = Medidor.medir(2, 10, () -> SomaParalela.somaMapReduce(dados, T)).mediaMs();
+            boolean okSoma = SomaParalela.somaMapReduce(dados, T) == esperadoSoma;
+            imprimirLinha("soma", T, maoSoma, apiSoma, okSoma);
+            
+            double maoPool = Medidor.medir(2, 10, () -> ThreadPool.executarComPool(dados, 100, T)).mediaMs();
+            double apiPool = Medidor.medir(2, 10, () -> ThreadPool.executarMapReduce(dados, T)).mediaMs();
+            boolean okPool = ThreadPool.executarMapReduce(dados, T) == esperadoPool;
+            imprimirLinha("processamento", T, maoPool, apiPool, okPool);
+        }
+        
+        // As demais especializações
+        double[] reais = new double[tamanho];
+        long[] longos = new long[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            reais[i] = dados[i] / 100.0;
+            longos[i] = (long) dados[i] << 32;
+        }
+        
+        System.out.println("\n=== ESPECIALIZAÇÕES (4 threads) ===\n");
+        int maximo = reduzir(dados, v -> v, Integer.MIN_VALUE, Math::max, 4);
+        long somaLongos = reduzir(longos, v -> v >>> 32, 0L, Long::sum, 4);
+        double somaQuadrados = reduzir(reais, v -> v * v, 0.0, Double::sum, 4);
+        System.out.println("int    máximo            = " + maximo);
+        System.out.println("long   soma(v >>> 32)    = " + somaLongos
+                         + (somaLongos == esperadoSoma ? " ✓" : " ✗"));
+        System.out.printf("double soma dos quadrados = %.4f\n", somaQuadrados);
+        
+        System.out.println("\n--- ANÁLISE ---");
+        System.out.println("1. Interfaces primitivas (MapaInt, CombinaLong…) evitam boxing:");
+        System.out.println("   o acumulador da folha fica em registrador, como no laço à mão");
+        System.out.println("2. Particionamento e árvore de redução são internos: a carga");
+        System.out.println("   só descreve o mapa e a combinação associativa");
+        System.out.println("3. Nas sobrecargas por elemento, todas as lambdas passam pelo mesmo");
+        System.out.println("   laço de reduzirFolha: com 3+ cargas quentes a chamada fica");
+        System.out.println("   megamórfica. Soma e processamento usam reduzirPorFolha: o laço");
+        System.out.println("   é o do chamador e a API só é chamada uma vez por folha");
+        System.out.println("4. Para double, a ordem da árvore muda o arredondamento final");
+    }
+    
+    static void imprimirLinha(String carga, int T, double mao, double api, boolean correto) {
+        System.out.printf("| %-14s | %7d | %10.2f | %15.2f | %8.2fx | %8s |\n",
+                        carga, T, mao, api, mao / api, correto ? "Sim ✓" : "Não ✗");
+    }
+}
\ No newline at end of file
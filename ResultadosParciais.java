@@ -0,0 +1,163 @@
+/**
+ * Utilitário - Resultados parciais por worker sem false sharing
+ * Objetivo: Cada worker escreve na sua própria linha de cache; slots
+ * vizinhos de um long[] denso compartilham a mesma linha (64 bytes)
+ */
+public class ResultadosParciais {
+    
+    // 16 longs = 128 bytes entre slots (cobre também o prefetch de linha adjacente)
+    private static final int ESPACAMENTO = 16;
+    
+    private final long[] slots;
+    private final int espacamento;
+    private final int base;
+    private final int tamanho;
+    
+    /**
+     * Um slot espaçado por worker
+     */
+    public ResultadosParciais(int numWorkers) {
+        this(numWorkers, true);
+    }
+    
+    /**
+     * espacado = false gera o layout denso (long[] comum), só para comparação
+     */
+    public ResultadosParciais(int numWorkers, boolean espacado) {
+        this.tamanho = numWorkers;
+        this.espacamento = espacado ? ESPACAMENTO : 1;
+        // Espaçado: slot 0 afastado do cabeçalho do array e o último do fim
+        this.base = espacado ? ESPACAMENTO : 0;
+        this.slots = new long[numWorkers * espacamento + 2 * base];
+    }
+    
+    public int tamanho() {
+        return tamanho;
+    }
+    
+    public long get(int worker) {
+        return slots[base + worker * espacamento];
+    }
+    
+    public void set(int worker, long valor) {
+        slots[base + worker * espacamento] = valor;
+    }
+    
+    public void adicionar(int worker, long delta) {
+        slots[base + worker * espacamento] += delta;
+    }
+    
+    /**
+     * Redução final; chamar após join()/awaitTermination (happens-before)
+     */
+    public long somar() {
+        long total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            total += get(i);
+        }
+        return total;
+    }
+    
+    /**
+     * Worker do benchmark: soma sua partição escrevendo no slot a cada
+     * elemento (noLaco) ou uma única vez no final
+     */
+    static class SomadorSlot implements Runnable {
+        private final int[] vetor;
+        private final int inicio;
+        private final int fim;
+        private final ResultadosParciais resultados;
+        private final int worker;
+        private final boolean noLaco;
+        
+        public SomadorSlot(int[] vetor, int inicio, int fim,
+                          ResultadosParciais resultados, int worker, boolean noLaco) {
+            this.vetor = vetor;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.resultados = resultados;
+            this.worker = worker;
+            this.noLaco = noLaco;
+        }
+        
+        @Override
+        public void run() {
+            if (noLaco) {
+                for (int i = inicio; i < fim; i++) {
+                    resultados.adicionar(worker, vetor[i]);
+                }
+            } else {
+                long soma = 0;
+                for (int i = inicio; i < fim; i++) {
+                    soma += vetor[i];
+                }
+                resultados.set(worker, soma);
+            }
+        }
+    }
+    
+    /**
+     * Soma paralela usando o layout e o padrão de escrita indicados
+     */
+    static long somar(int[] vetor, int numThreads, boolean espacado, boolean noLaco) {
+        Thread[] threads = new Thread[numThreads];
+        ResultadosParciais resultados = new ResultadosParciais(numThreads, espacado);
+        int tamanhoParticao = vetor.length / numThreads;
+        
+        for (int i = 0; i < numThreads; i++) {
+            int inicio = i * tamanhoParticao;
+            int fim = (i == numThreads - 1) ? vetor.length : (i + 1) * tamanhoParticao;
+            threads[i] = new Thread(new SomadorSlot(vetor, inicio, fim, resultados, i, noLaco));
+            threads[i].start();
+        }
+        
+        for (int i = 0; i < numThreads; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        return resultados.somar();
+    }
+    
+    public static void main(String[] args) {
+        System.out.println("=== False Sharing nos Resultados Parciais ===\n");
+        
+        int tamanho = 50_000_000;
+        int[] numThreadsArray = {1, 2, 4, 8};
+        int[] vetor = SomaParalela.gerarVetor(tamanho);
+        long esperado = SomaParalela.somaSequencial(vetor);
+        
+        System.out.println("Configuração:");
+        System.out.println("- Vetor: " + tamanho + " elementos");
+        System.out.println("- Slot espaçado: " + ESPACAMENTO * 8 + " bytes | denso: 8 bytes");
+        System.out.println("- Cores disponíveis: " + Runtime.getRuntime().availableProcessors());
+        System.out.println();
+        
+        System.out.println("| Threads | Denso, no laço (ms) | Espaçado, no laço (ms) | Penalidade | Uma escrita (ms) | Correto? |");
+        System.out.println("|---------|---------------------|------------------------|------------|------------------|----------|");
+        
+        for (int T : numThreadsArray) {
+            double denso = Medidor.medir(1, 5, () -> somar(vetor, T, false, true)).mediaMs();
+            double espacado = Medidor.medir(1, 5, () -> somar(vetor, T, true, true)).mediaMs();
+            double umaEscrita = Medidor.medir(1, 5, () -> somar(vetor, T, false, false)).mediaMs();
+            boolean correto = somar(vetor, T, false, true) == esperado
+                           && somar(vetor, T, true, true) == esperado
+                           && somar(vetor, T, false, false) == esperado;
+            
+            System.out.printf("| %7d | %19.1f | %22.1f | %9.2fx | %16.1f | %8s |\n",
+                            T, denso, espacado, denso / espacado, umaEscrita,
+                            correto ? "Sim ✓" : "Não ✗");
+        }
+        
+        System.out.println("\n--- ANÁLISE ---");
+        System.out.println("1. Denso + escrita no laço: slots vizinhos na mesma linha de");
+        System.out.println("   cache; cada escrita invalida a linha nos outros cores");
+        System.out.println("2. Espaçado: cada worker tem sua linha, a penalidade some");
+        System.out.println("3. Acumular em variável local e escrever uma vez no final evita");
+        System.out.println("   o problema em qualquer layout (é o que as atividades fazem)");
+        System.out.println("4. Com 1 core disponível não há disputa de linha: penalidade ~1x");
+    }
+}
\ No newline at end of file
@@ -1,3 +1,26 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Atividade 9 - Soma paralela de vetor (map–reduce)
  * Objetivo: Dividir um vetor grande entre threads e reduzir a soma
@@ -11,11 +34,11 @@ public class SomaParalela {
         private final int[] vetor;
         private final int inicio;
         private final int fim;
-        private final long[] resultadoParcial;
+        private final ResultadosParciais resultadoParcial;
         private final int indiceResultado;
         
         public SomadorParcial(int[] vetor, int inicio, int fim, 
-                             long[] resultadoParcial, int indiceResultado) {
+                             ResultadosParciais resultadoParcial, int indiceResultado) {
             this.vetor = vetor;
             this.inicio = inicio;
             this.fim = fim;
@@ -23,19 +46,270 @@ public class SomaParalela {
             this.indiceResultado = indiceResultado;
         }
         
+        @Override
+        public void run() {
+            resultadoParcial.set(indiceResultado, somaKernel(vetor, inicio, fim));
+        }
+    }
+    
+    // Janela máxima mapeada por vez (um MappedByteBuffer é limitado a 2 GB)
+    static final long JANELA_MAPEADA = 1L << 30;
+    
+    /**
+     * Worker que soma uma partição [inicio, fim) de um arquivo mapeado de
+     * ints little-endian, mapeando uma janela de até 1 GB por vez
+     */
+    static class SomadorMapeado implements Runnable {
+        private final FileChannel canal;
+        private final long inicio;
+        private final long fim;
+        private final ResultadosParciais resultadoParcial;
+        private final int indiceResultado;
+        
+        public SomadorMapeado(FileChannel canal, long inicio, long fim,
+                             ResultadosParciais resultadoParcial, int indiceResultado) {
+            this.canal = canal;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.resultadoParcial = resultadoParcial;
+            this.indiceResultado = indiceResultado;
+        }
+        
         @Override
         public void run() {
             long soma = 0;
-            for (int i = inicio; i < fim; i++) {
-                soma += vetor[i];
+            try {
+                for (long pos = inicio; pos < fim; pos += JANELA_MAPEADA / 4) {
+                    long elementos = Math.min(JANELA_MAPEADA / 4, fim - pos);
+                    IntBuffer janela = canal.map(FileChannel.MapMode.READ_ONLY, pos * 4, elementos * 4)
+                                            .order(ByteOrder.LITTLE_ENDIAN)
+                                            .asIntBuffer();
+                    for (int i = 0; i < elementos; i++) {
+                        soma += janela.get(i);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            resultadoParcial.set(indiceResultado, soma);
+        }
+    }
+    
+    /**
+     * Soma incremental de um fluxo de ints little-endian: a thread leitora
+     * só faz I/O e entrega chunks a um pool limitado, que soma enquanto o
+     * próximo chunk é lido. Memória limitada a tamanhoChunk × chunksEmVoo.
+     */
+    static class SomaIncremental {
+        private final ExecutorService pool;
+        private final BlockingQueue<byte[]> buffersLivres;
+        private final int chunksEmVoo;
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong elementosSomados = new AtomicLong();
+        private final AtomicReference<Throwable> falha = new AtomicReference<>();
+        
+        public SomaIncremental(int numThreads, int tamanhoChunk, int chunksEmVoo) {
+            this.pool = Executors.newFixedThreadPool(numThreads);
+            this.chunksEmVoo = chunksEmVoo;
+            this.buffersLivres = new ArrayBlockingQueue<>(chunksEmVoo);
+            for (int i = 0; i < chunksEmVoo; i++) {
+                buffersLivres.add(new byte[tamanhoChunk * 4]);
+            }
+        }
+        
+        /**
+         * Consome o fluxo até o fim e devolve a soma total. Rejeita (IOException)
+         * um fluxo cujo tamanho não é múltiplo de 4 bytes; a falha de um chunk
+         * é relançada depois que todos os buffers voltam.
+         */
+        public long somar(InputStream entrada) throws IOException, InterruptedException {
+            int bytesSobrando = 0;
+            while (falha.get() == null) {
+                byte[] buffer = buffersLivres.take(); // Bloqueia: limite de chunks em voo
+                int lidos;
+                try {
+                    lidos = lerCompleto(entrada, buffer);
+                } catch (IOException e) {
+                    buffersLivres.put(buffer);
+                    aguardarBuffers();
+                    throw e;
+                }
+                bytesSobrando = lidos % 4;
+                int elementos = lidos / 4;
+                if (elementos == 0) {
+                    buffersLivres.put(buffer);
+                    break;
+                }
+                pool.execute(() -> {
+                    try {
+                        IntBuffer ints = ByteBuffer.wrap(buffer, 0, elementos * 4)
+                                                   .order(ByteOrder.LITTLE_ENDIAN)
+                                                   .asIntBuffer();
+                        long soma = 0;
+                        for (int i = 0; i < elementos; i++) {
+                            soma += ints.get(i);
+                        }
+                        total.add(soma);
+                        elementosSomados.addAndGet(elementos);
+                    } catch (Throwable t) {
+                        falha.compareAndSet(null, t);
+                    } finally {
+                        buffersLivres.add(buffer); // Devolve o buffer ao leitor, sempre
+                    }
+                });
+                if (lidos < buffer.length) {
+                    break; // Fim do fluxo
+                }
+            }
+            aguardarBuffers();
+            
+            Throwable erro = falha.getAndSet(null);
+            if (erro != null) {
+                throw new IllegalStateException("Falha ao somar um chunk", erro);
+            }
+            if (bytesSobrando != 0) {
+                throw new IOException("Fluxo termina com " + bytesSobrando
+                                      + " byte(s) que não formam um int (tamanho não múltiplo de 4)");
+            }
+            return total.sum();
+        }
+        
+        /**
+         * Todos os buffers de volta = todos os chunks somados
+         */
+        private void aguardarBuffers() throws InterruptedException {
+            byte[][] todos = new byte[chunksEmVoo][];
+            for (int i = 0; i < chunksEmVoo; i++) {
+                todos[i] = buffersLivres.take();
+            }
+            for (byte[] buffer : todos) {
+                buffersLivres.put(buffer);
+            }
+        }
+        
+        /**
+         * Total parcial corrente (pode ser lido a qualquer momento)
+         */
+        public long parcial() {
+            return total.sum();
+        }
+        
+        public long elementosSomados() {
+            return elementosSomados.get();
+        }
+        
+        public void encerrar() {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        private static int lerCompleto(InputStream entrada, byte[] buffer) throws IOException {
+            int lidos = 0;
+            while (lidos < buffer.length) {
+                int n = entrada.read(buffer, lidos, buffer.length - lidos);
+                if (n < 0) {
+                    break;
+                }
+                lidos += n;
+            }
+            return lidos;
+        }
+    }
+    
+    /**
+     * Fluxo sintético com os mesmos valores de gerarVetor, em ints little-endian
+     */
+    static class FluxoGerado extends InputStream {
+        private final long totalBytes;
+        private long posicao = 0;
+        
+        public FluxoGerado(long elementos) {
+            this.totalBytes = elementos * 4;
+        }
+        
+        @Override
+        public int read() {
+            if (posicao >= totalBytes) {
+                return -1;
+            }
+            int valor = (int) ((posicao >> 2) % 100);
+            return (valor >>> (8 * (int) (posicao++ & 3))) & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] destino, int inicio, int tamanho) {
+            if (posicao >= totalBytes) {
+                return -1;
+            }
+            int n = (int) Math.min(tamanho, totalBytes - posicao);
+            for (int i = 0; i < n; i++) {
+                int valor = (int) ((posicao >> 2) % 100);
+                destino[inicio + i] = (byte) (valor >>> (8 * (int) (posicao++ & 3)));
+            }
+            return n;
+        }
+    }
+    
+    // Limiar sequencial padrão do ForkJoin (ajuste com -Dsomaparalela.limiar=N)
+    static final int LIMIAR_PADRAO = Integer.getInteger("somaparalela.limiar", 10_000);
+    
+    /**
+     * Tarefa recursiva: divide o intervalo ao meio até o limiar e soma
+     * sequencialmente; workers ociosos roubam as metades pendentes
+     */
+    @SuppressWarnings("serial") // Tarefas nunca são serializadas
+    static class SomaRecursiva extends RecursiveTask<Long> {
+        private final int[] vetor;
+        private final int inicio;
+        private final int fim;
+        private final int limiar;
+        
+        public SomaRecursiva(int[] vetor, int inicio, int fim, int limiar) {
+            this.vetor = vetor;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.limiar = limiar;
+        }
+        
+        @Override
+        protected Long compute() {
+            if (fim - inicio <= limiar) {
+                return somaKernel(vetor, inicio, fim);
             }
-            resultadoParcial[indiceResultado] = soma;
+            
+            int meio = (inicio + fim) >>> 1;
+            SomaRecursiva esquerda = new SomaRecursiva(vetor, inicio, meio, limiar);
+            SomaRecursiva direita = new SomaRecursiva(vetor, meio, fim, limiar);
+            esquerda.fork();                       // Fica disponível para roubo
+            long somaDireita = direita.compute();  // Esta thread segue com a outra metade
+            return somaDireita + esquerda.join();
         }
     }
     
     public static void main(String[] args) {
         System.out.println("=== Atividade 9 - Soma Paralela (Map-Reduce) ===\n");
         
+        // Uso: java SomaParalela mapeado [arquivo|-] [elementos] [manter] → entrada fora do heap
+        // ("-" ou sem arquivo: arquivo temporário; sem "manter", o arquivo gravado é apagado;
+        // um arquivo existente só é lido e 'elementos' é ignorado)
+        if (args.length > 0 && args[0].equals("mapeado")) {
+            Path arquivo = args.length > 1 && !args[1].equals("-") ? Paths.get(args[1]) : null;
+            long elementos = args.length > 2 ? Long.parseLong(args[2]) : ELEMENTOS_MAPEADO_PADRAO;
+            boolean manter = args.length > 3 && args[3].equals("manter");
+            executarMapeado(arquivo, elementos, new int[]{1, 2, 4, 8}, manter);
+            return;
+        }
+        
+        // Uso: java SomaParalela streaming [arquivo] → soma incremental de um fluxo
+        if (args.length > 0 && args[0].equals("streaming")) {
+            executarStreaming(args.length > 1 ? Paths.get(args[1]) : null, 100_000_000L);
+            return;
+        }
+        
         // Configuração
         int tamanhoVetor = 50_000_000; // 50 milhões
         int[] numThreadsArray = {1, 2, 4, 8};
@@ -68,6 +342,105 @@ public class SomaParalela {
                             correto ? "Sim ✓" : "Não ✗");
         }
         
+        // Localidade: first-touch paralelo e afinidade partição → worker
+        // (linha de base em workers já criados: a diferença é só a localidade)
+        System.out.println("\n=== PARTIÇÕES LOCAIS (first-touch paralelo, workers persistentes) ===\n");
+        System.out.println("| Threads | Vetor do main (ms) | Locais, rotativas (ms) | Locais, fixas (ms) | Correto? |");
+        System.out.println("|---------|--------------------|------------------------|--------------------|----------|");
+        
+        for (int numThreads : numThreadsArray) {
+            PoolPersistente workers = new PoolPersistente(numThreads);
+            long tempoOriginal = medirTempoParalelo(vetor, workers);
+            workers.encerrar();
+            ParticoesLocais locais = new ParticoesLocais(numThreads, tamanhoVetor, i -> i % 100);
+            long tempoRotativo = medirTempoParaleloLocal(locais, false);
+            long tempoFixo = medirTempoParaleloLocal(locais, true);
+            boolean correto = somaParalelaLocal(locais, true) == somaSequencial
+                           && somaParalelaLocal(locais, false) == somaSequencial;
+            locais.encerrar();
+            
+            System.out.printf("| %7d | %18d | %22d | %18d | %8s |\n",
+                            numThreads, tempoOriginal, tempoRotativo, tempoFixo,
+                            correto ? "Sim ✓" : "Não ✗");
+        }
+        
+        // ForkJoin vs particionado fixo, variando o tamanho do vetor
+        int threadsComparacao = 4;
+        vetor = null; // Libera o vetor de 50M antes dos tamanhos maiores
+        System.out.println("\n=== FORKJOIN vs PARTICIONADO (" + threadsComparacao
+                         + " threads, limiar " + LIMIAR_PADRAO + ") ===\n");
+        System.out.println("| Tamanho       | Particionado (ms) | ForkJoin (ms) | Particionado/FJ | Correto? |");
+        System.out.println("|---------------|-------------------|---------------|-----------------|----------|");
+        
+        for (long n = 10_000L; n <= 1_000_000_000L; n *= 10) {
+            // int[] de n elementos ocupa 4n bytes; pula tamanhos que não cabem no heap
+            if (n * 4 > Runtime.getRuntime().maxMemory() * 3 / 4) {
+                System.out.printf("| %13d | %17s | %13s | %15s | %8s |\n",
+                                n, "heap insuf.", "-", "-", "-");
+                continue;
+            }
+            int[] v = gerarVetor((int) n);
+            double tempoParticionado = medirMs(n, () -> somaParalela(v, threadsComparacao));
+            double tempoForkJoin = medirMs(n, () -> somaForkJoin(v, threadsComparacao));
+            boolean correto = somaForkJoin(v, threadsComparacao) == somaSequencial(v);
+            
+            System.out.printf("| %13d | %17.3f | %13.3f | %14.2fx | %8s |\n",
+                            n, tempoParticionado, tempoForkJoin, tempoParticionado / tempoForkJoin,
+                            correto ? "Sim ✓" : "Não ✗");
+        }
+        
+        // Workers persistentes vs threads novas a cada soma
+        PoolPersistente persistente = new PoolPersistente(threadsComparacao);
+        System.out.println("\n=== WORKERS PERSISTENTES (" + threadsComparacao + " threads) ===\n");
+        System.out.println("| Tamanho   | Threads novas (ms) | Persistentes (ms) | Ganho | Correto? |");
+        System.out.println("|-----------|--------------------|-------------------|-------|----------|");
+        
+        for (int n = 10_000; n <= 10_000_000; n *= 10) {
+            int[] v = gerarVetor(n);
+            double novas = medirMs(n, () -> somaParalela(v, threadsComparacao));
+            double persistentes = medirMs(n, () -> somaParalela(v, persistente));
+            boolean correto = somaParalela(v, persistente) == somaSequencial(v);
+            System.out.printf("| %9d | %18.3f | %17.3f | %4.1fx | %8s |\n",
+                            n, novas, persistentes, novas / persistentes,
+                            correto ? "Sim ✓" : "Não ✗");
+        }
+        persistente.encerrar();
+        
+        // Kernel de soma por tamanho de partição (cache L1 → RAM)
+        int[] vetorKernel = gerarVetor(16 << 20);
+        System.out.println("\n=== KERNEL DE SOMA POR PARTIÇÃO (GB/s, 1 thread) ===\n");
+        System.out.println("Kernel vetorial (IntVector): " + (KERNEL_VETORIAL != null ? "carregado"
+                         : "indisponível (compile vetorial/SomaVetorial.java e use --add-modules jdk.incubator.vector)"));
+        System.out.println();
+        System.out.println("| Partição (ints) | Escalar (GB/s) | 4 acumuladores (GB/s) | IntVector (GB/s) | Melhor/escalar |");
+        System.out.println("|-----------------|----------------|-----------------------|------------------|----------------|");
+        
+        for (int particao : new int[]{4 << 10, 64 << 10, 1 << 20, 16 << 20}) {
+            double escalar = medirKernelGBs(vetorKernel, particao, "escalar");
+            double acumuladores = medirKernelGBs(vetorKernel, particao, "acumuladores");
+            double vetorial = medirKernelGBs(vetorKernel, particao, "vetorial");
+            System.out.printf("| %15d | %14.2f | %21.2f | %16s | %13.2fx |\n",
+                            particao, escalar, acumuladores,
+                            vetorial < 0 ? "-" : String.format("%.2f", vetorial),
+                            Math.max(acumuladores, vetorial) / escalar);
+        }
+        vetorKernel = null;
+        
+        // Efeito do limiar sequencial
+        int[] vetorLimiar = gerarVetor(10_000_000);
+        System.out.println("\n=== LIMIAR SEQUENCIAL DO FORKJOIN (10M elementos, "
+                         + threadsComparacao + " threads) ===\n");
+        System.out.println("| Limiar    | Tarefas  | Tempo (ms) |");
+        System.out.println("|-----------|----------|------------|");
+        
+        for (int limiar : new int[]{100, 1_000, 10_000, 100_000, 1_000_000}) {
+            ForkJoinPool pool = poolCompartilhado(threadsComparacao);
+            double tempo = medirMs(vetorLimiar.length,
+                                   () -> somaForkJoin(vetorLimiar, pool, limiar));
+            long folhas = Long.highestOneBit(Math.max(1, (vetorLimiar.length - 1) / limiar)) * 2;
+            System.out.printf("| %9d | %8d | %10.3f |\n", limiar, folhas, tempo);
+        }
+        
         System.out.println("\n--- ANÁLISE ---");
         System.out.println();
         System.out.println("POR QUE NÃO CHEGOU NO SPEEDUP IDEAL?");
@@ -94,6 +467,22 @@ public class SomaParalela {
         System.out.println("- 2 threads: ~1.8-1.9x (90-95% eficiência)");
         System.out.println("- 4 threads: ~3.2-3.6x (80-90% eficiência)");
         System.out.println("- 8 threads: ~5.0-6.5x (62-81% eficiência)");
+        System.out.println();
+        System.out.println("--- PARTIÇÕES LOCAIS ---");
+        System.out.println("1. gerarVetor é tocado só pelo main: em máquinas de dois sockets");
+        System.out.println("   as páginas ficam no nó do main e os outros workers leem remoto");
+        System.out.println("2. Com first-touch cada worker aloca e preenche sua partição");
+        System.out.println("   (use -XX:+UseNUMA para a JVM alocar no nó local)");
+        System.out.println("3. Afinidade fixa: a mesma thread relê a mesma partição a cada");
+        System.out.println("   rodada, reaproveitando cache e memória local; a rotativa não");
+        System.out.println();
+        System.out.println("--- FORKJOIN (WORK-STEALING) ---");
+        System.out.println("1. O pool é criado uma vez e reaproveitado: sem custo de");
+        System.out.println("   criar threads a cada soma (domina nos vetores pequenos)");
+        System.out.println("2. Partições lentas não deixam cores ociosos: quem termina");
+        System.out.println("   rouba metades pendentes das filas dos outros workers");
+        System.out.println("3. Limiar pequeno demais: overhead de criar/agendar tarefas;");
+        System.out.println("   grande demais: poucas tarefas para roubar (desbalanceamento)");
     }
     
     /**
@@ -107,23 +496,311 @@ public class SomaParalela {
         return vetor;
     }
     
+    /**
+     * Grava um arquivo com 'tamanho' ints little-endian (mesmos valores de
+     * gerarVetor), sem passar pelo heap
+     */
+    static void gravarVetorMapeado(Path arquivo, long tamanho) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            raf.setLength(tamanho * 4);
+            FileChannel canal = raf.getChannel();
+            for (long pos = 0; pos < tamanho; pos += JANELA_MAPEADA / 4) {
+                long elementos = Math.min(JANELA_MAPEADA / 4, tamanho - pos);
+                IntBuffer janela = canal.map(FileChannel.MapMode.READ_WRITE, pos * 4, elementos * 4)
+                                        .order(ByteOrder.LITTLE_ENDIAN)
+                                        .asIntBuffer();
+                for (int i = 0; i < elementos; i++) {
+                    janela.put(i, (int) ((pos + i) % 100));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Soma paralela de um arquivo mapeado: cada thread mapeia e soma sua partição
+     */
+    static long somaParalelaMapeada(FileChannel canal, int numThreads) throws IOException {
+        long tamanho = canal.size() / 4;
+        Thread[] threads = new Thread[numThreads];
+        ResultadosParciais somasParciais = new ResultadosParciais(numThreads);
+        
+        long tamanhoParticao = tamanho / numThreads;
+        
+        for (int i = 0; i < numThreads; i++) {
+            long inicio = i * tamanhoParticao;
+            long fim = (i == numThreads - 1) ? tamanho : (i + 1) * tamanhoParticao;
+            
+            threads[i] = new Thread(new SomadorMapeado(canal, inicio, fim, somasParciais, i));
+            threads[i].start();
+        }
+        
+        for (int i = 0; i < numThreads; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        return somasParciais.somar();
+    }
+    
+    /**
+     * Soma esperada de gerarVetor/gravarVetorMapeado (valores i % 100)
+     */
+    static long somaEsperada(long tamanho) {
+        long resto = tamanho % 100;
+        return (tamanho / 100) * 4950 + resto * (resto - 1) / 2;
+    }
+    
+    // Padrão do modo mapeado: 100M ints (400 MB); passe mais para passar de 2^31
+    static final long ELEMENTOS_MAPEADO_PADRAO = 100_000_000L;
+    
+    /**
+     * Mede a soma mapeada para cada número de threads. arquivo == null usa
+     * um temporário. Só um arquivo que não existia é gravado (com
+     * 'elementos' ints) e apagado no final, a menos que 'manter'; um
+     * arquivo existente nunca é alterado e seu tamanho define os elementos.
+     */
+    static void executarMapeado(Path arquivo, long elementos, int[] numThreadsArray, boolean manter) {
+        if (elementos <= 0) {
+            throw new IllegalArgumentException("Número de elementos deve ser positivo: " + elementos);
+        }
+        boolean criado = false;
+        try {
+            if (arquivo == null) {
+                arquivo = Files.createTempFile("vetor", ".bin");
+                criado = true;
+            } else {
+                criado = !Files.exists(arquivo);
+            }
+            if (criado) {
+                System.out.println("Gravando " + elementos + " ints em " + arquivo + "...");
+                gravarVetorMapeado(arquivo, elementos);
+            } else {
+                long bytes = Files.size(arquivo);
+                if (bytes == 0 || bytes % 4 != 0) {
+                    System.out.println("Arquivo " + arquivo + " tem " + bytes
+                                     + " bytes: esperado um múltiplo positivo de 4 (ints)");
+                    return;
+                }
+                elementos = bytes / 4;
+            }
+            double gb = elementos * 4 / 1e9;
+            
+            System.out.printf("Arquivo: %s (%.2f GB, heap máximo %.2f GB)\n\n",
+                            arquivo, gb, Runtime.getRuntime().maxMemory() / 1e9);
+            
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                // Arquivo gerado: soma conhecida; arquivo do usuário: uma
+                // passada sequencial na thread atual serve de referência
+                long esperada;
+                if (criado) {
+                    esperada = somaEsperada(elementos);
+                } else {
+                    ResultadosParciais referencia = new ResultadosParciais(1);
+                    new SomadorMapeado(canal, 0, elementos, referencia, 0).run();
+                    esperada = referencia.get(0);
+                }
+                
+                System.out.println("| Threads | Tempo (ms) |   GB/s | Correto? |");
+                System.out.println("|---------|------------|--------|----------|");
+                
+                for (int numThreads : numThreadsArray) {
+                    long[] soma = new long[1];
+                    Medidor.Resultado r = Medidor.medir(() -> {
+                        try {
+                            soma[0] = somaParalelaMapeada(canal, numThreads);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return soma[0];
+                    });
+                    System.out.printf("| %7d | %10.0f | %6.2f | %8s |\n",
+                                    numThreads, r.mediaMs(), gb / (r.mediaMs() / 1000.0),
+                                    soma[0] == esperada ? "Sim ✓" : "Não ✗");
+                }
+            }
+            
+            System.out.println("\nO arquivo fica no page cache do SO, fora do heap: o limite");
+            System.out.println("é o disco/RAM, não -Xmx nem os 2^31 elementos de um int[].");
+        } catch (IOException e) {
+            System.out.println("Erro ao acessar " + arquivo + ": " + e.getMessage());
+        } finally {
+            if (criado && !manter) {
+                try {
+                    Files.deleteIfExists(arquivo);
+                } catch (IOException e) {
+                    System.out.println("Não foi possível apagar " + arquivo + ": " + e.getMessage());
+                }
+            } else if (criado) {
+                System.out.println("Arquivo mantido: " + arquivo);
+            }
+        }
+    }
+    
+    /**
+     * Soma incremental de um arquivo (ou de um fluxo gerado) variando chunk e threads
+     */
+    static void executarStreaming(Path arquivo, long elementosGerados) {
+        try {
+            long elementos = arquivo != null ? Files.size(arquivo) / 4 : elementosGerados;
+            long esperada = somaEsperada(elementos);
+            System.out.println("Fonte: " + (arquivo != null ? arquivo : "fluxo gerado")
+                             + " (" + elementos + " ints)\n");
+            
+            System.out.println("| Chunk (ints) | Em voo | Threads | Tempo (ms) | Buffers (MB) | Correto? |");
+            System.out.println("|--------------|--------|---------|------------|--------------|----------|");
+            
+            for (int chunk : new int[]{16 << 10, 256 << 10, 4 << 20}) {
+                for (int numThreads : new int[]{1, 2, 4}) {
+                    int emVoo = 2 * numThreads; // Um somando e um esperando por worker
+                    SomaIncremental soma = new SomaIncremental(numThreads, chunk, emVoo);
+                    long inicio = System.nanoTime();
+                    long total;
+                    try (InputStream entrada = arquivo != null ? Files.newInputStream(arquivo)
+                                                               : new FluxoGerado(elementos)) {
+                        total = soma.somar(entrada);
+                    } finally {
+                        soma.encerrar();
+                    }
+                    long tempo = (System.nanoTime() - inicio) / 1_000_000;
+                    
+                    System.out.printf("| %12d | %6d | %7d | %10d | %12.1f | %8s |\n",
+                                    chunk, emVoo, numThreads, tempo, chunk * 4.0 * emVoo / (1 << 20),
+                                    total == esperada ? "Sim ✓" : "Não ✗");
+                }
+            }
+            
+            // Totais parciais disponíveis durante a leitura
+            System.out.println("\nTotais parciais (amostrados a cada 100 ms durante uma soma):");
+            SomaIncremental soma = new SomaIncremental(2, 256 << 10, 4);
+            Thread monitor = new Thread(() -> {
+                try {
+                    while (true) {
+                        Thread.sleep(100);
+                        System.out.printf("  %,d elementos → parcial %,d\n",
+                                        soma.elementosSomados(), soma.parcial());
+                    }
+                } catch (InterruptedException e) {
+                    // Fim da soma
+                }
+            });
+            monitor.setDaemon(true);
+            monitor.start();
+            try (InputStream entrada = arquivo != null ? Files.newInputStream(arquivo)
+                                                       : new FluxoGerado(elementos)) {
+                System.out.printf("  Total final: %,d\n", soma.somar(entrada));
+            } finally {
+                monitor.interrupt();
+                soma.encerrar();
+            }
+        } catch (IOException e) {
+            System.out.println("Erro ao ler o fluxo: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     /**
      * Soma sequencial (referência)
      */
     static long somaSequencial(int[] vetor) {
+        return somaKernel(vetor, 0, vetor.length);
+    }
+    
+    // Kernel SIMD opcional (vetorial/SomaVetorial.java, exige --add-modules
+    // jdk.incubator.vector); null se a classe ou o módulo não estão presentes
+    static final ReducaoParalela.FolhaIntLong KERNEL_VETORIAL = carregarKernelVetorial();
+    
+    private static ReducaoParalela.FolhaIntLong carregarKernelVetorial() {
+        try {
+            return (ReducaoParalela.FolhaIntLong) Class.forName("SomaVetorial")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null; // Sem a classe compilada ou sem o módulo incubador
+        }
+    }
+    
+    /**
+     * Kernel de soma de uma partição: Vector API se disponível (opt-in),
+     * senão 4 acumuladores escalares. KERNEL_VETORIAL é static final: o JIT
+     * elimina o teste e a chamada fica monomórfica
+     */
+    static long somaKernel(int[] vetor, int inicio, int fim) {
+        if (KERNEL_VETORIAL != null) {
+            return KERNEL_VETORIAL.reduzir(vetor, inicio, fim);
+        }
+        return somaAcumuladores(vetor, inicio, fim);
+    }
+    
+    /**
+     * 4 acumuladores long independentes: quebra a cadeia de dependência do
+     * acumulador único (4 somas em voo por ciclo). Não depende de SIMD; se
+     * o C2 vetoriza ou não, a tabela do kernel mostra o efeito real em GB/s
+     */
+    static long somaAcumuladores(int[] vetor, int inicio, int fim) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = inicio;
+        for (; i <= fim - 4; i += 4) {
+            s0 += vetor[i];
+            s1 += vetor[i + 1];
+            s2 += vetor[i + 2];
+            s3 += vetor[i + 3];
+        }
+        for (; i < fim; i++) {
+            s0 += vetor[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+    
+    /**
+     * Laço escalar original (um acumulador), mantido para comparação
+     */
+    static long somaEscalar(int[] vetor, int inicio, int fim) {
         long soma = 0;
-        for (int valor : vetor) {
-            soma += valor;
+        for (int i = inicio; i < fim; i++) {
+            soma += vetor[i];
         }
         return soma;
     }
     
+    /**
+     * Vazão em GB/s de um kernel ("escalar", "acumuladores" ou "vetorial")
+     * somando repetidamente uma partição; -1 se o kernel vetorial não está carregado
+     */
+    static double medirKernelGBs(int[] vetor, int tamanhoParticao, String kernel) {
+        if (kernel.equals("vetorial") && KERNEL_VETORIAL == null) {
+            return -1;
+        }
+        // Repete a partição até ~64M elementos por execução medida
+        int repeticoes = Math.max(1, (64 << 20) / tamanhoParticao);
+        Medidor.Resultado r = Medidor.medir(5, 10, () -> {
+            long soma = 0;
+            for (int k = 0; k < repeticoes; k++) {
+                switch (kernel) {
+                    case "escalar":
+                        soma += somaEscalar(vetor, 0, tamanhoParticao);
+                        break;
+                    case "acumuladores":
+                        soma += somaAcumuladores(vetor, 0, tamanhoParticao);
+                        break;
+                    default:
+                        soma += KERNEL_VETORIAL.reduzir(vetor, 0, tamanhoParticao);
+                }
+            }
+            return soma;
+        });
+        double bytes = 4.0 * tamanhoParticao * repeticoes;
+        return bytes / (r.mediaMs() / 1000.0) / 1e9;
+    }
+    
     /**
      * Soma paralela dividindo vetor entre threads
      */
     static long somaParalela(int[] vetor, int numThreads) {
         Thread[] threads = new Thread[numThreads];
-        long[] somasParciais = new long[numThreads];
+        ResultadosParciais somasParciais = new ResultadosParciais(numThreads);
         
         int tamanhoParticao = vetor.length / numThreads;
         
@@ -147,50 +824,109 @@ public class SomaParalela {
         }
         
         // Reduzir: somar resultados parciais
-        long somaTotal = 0;
-        for (long somaParcial : somasParciais) {
-            somaTotal += somaParcial;
-        }
+        return somasParciais.somar();
+    }
+    
+    /**
+     * Soma com ForkJoin no pool compartilhado e limiar padrão
+     */
+    static long somaForkJoin(int[] vetor, int numThreads) {
+        return somaForkJoin(vetor, poolCompartilhado(numThreads), LIMIAR_PADRAO);
+    }
+    
+    /**
+     * Soma com ForkJoin em um pool e limiar sequencial escolhidos
+     */
+    static long somaForkJoin(int[] vetor, ForkJoinPool pool, int limiar) {
+        return pool.invoke(new SomaRecursiva(vetor, 0, vetor.length, Math.max(1, limiar)));
+    }
+    
+    /**
+     * ForkJoinPool compartilhado com o paralelismo indicado (criado na primeira vez)
+     */
+    static ForkJoinPool poolCompartilhado(int numThreads) {
+        return ReducaoParalela.pool(numThreads);
+    }
+    
+    /**
+     * A mesma soma expressa sobre a API genérica de map-reduce
+     */
+    static long somaMapReduce(int[] vetor, int numThreads) {
+        return ReducaoParalela.reduzirPorFolha(vetor, SomaParalela::somaKernel, Long::sum, numThreads);
+    }
+    
+    /**
+     * Tempo médio em ms; vetores pequenos usam mais repetições
+     */
+    static double medirMs(long tamanho, Medidor.Tarefa tarefa) {
+        int aquecimentos = tamanho <= 1_000_000 ? 50 : Medidor.AQUECIMENTOS_PADRAO;
+        int medicoes = tamanho <= 1_000_000 ? 100 : Medidor.MEDICOES_PADRAO;
+        return Medidor.medir(aquecimentos, medicoes, tarefa).mediaMs();
+    }
+    
+    /**
+     * Soma sobre partições locais (cada worker soma a sua ou uma rotativa)
+     */
+    static long somaParalelaLocal(ParticoesLocais locais, boolean afinidadeFixa) {
+        return locais.executar(p -> somaKernel(p, 0, p.length), afinidadeFixa);
+    }
+    
+    /**
+     * Mede tempo da versão com partições locais
+     */
+    static long medirTempoParaleloLocal(ParticoesLocais locais, boolean afinidadeFixa) {
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> somaParalelaLocal(locais, afinidadeFixa));
+        
+        return Math.round(r.mediaMs());
+    }
+    
+    /**
+     * Soma paralela nos workers quentes de um PoolPersistente: mesmas
+     * partições de somaParalela, sem criar threads a cada chamada
+     */
+    static long somaParalela(int[] vetor, PoolPersistente pool) {
+        int numThreads = pool.numWorkers();
+        ResultadosParciais somasParciais = new ResultadosParciais(numThreads);
+        int tamanhoParticao = vetor.length / numThreads;
         
-        return somaTotal;
+        pool.executar((i, n) -> {
+            int inicio = i * tamanhoParticao;
+            int fim = (i == n - 1) ? vetor.length : (i + 1) * tamanhoParticao;
+            somasParciais.set(i, somaKernel(vetor, inicio, fim));
+        });
+        
+        return somasParciais.somar();
     }
     
     /**
      * Mede tempo da versão sequencial
      */
     static long medirTempoSequencial(int[] vetor) {
-        // Aquecimento
-        somaSequencial(vetor);
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> somaSequencial(vetor));
         
-        // Medir 3 vezes
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            long inicio = System.nanoTime();
-            somaSequencial(vetor);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
+        return Math.round(r.mediaMs());
+    }
+    
+    /**
+     * Mede tempo da versão paralela em workers já criados
+     */
+    static long medirTempoParalelo(int[] vetor, PoolPersistente pool) {
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> somaParalela(vetor, pool));
         
-        return (tempos[0] + tempos[1] + tempos[2]) / 3;
+        return Math.round(r.mediaMs());
     }
     
     /**
      * Mede tempo da versão paralela
      */
     static long medirTempoParalelo(int[] vetor, int numThreads) {
-        // Aquecimento
-        somaParalela(vetor, numThreads);
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> somaParalela(vetor, numThreads));
         
-        // Medir 3 vezes
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            long inicio = System.nanoTime();
-            somaParalela(vetor, numThreads);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
-        
-        return (tempos[0] + tempos[1] + tempos[2]) / 3;
+        return Math.round(r.mediaMs());
     }
 }
 
@@ -211,4 +947,35 @@ public class SomaParalela {
  * - Balanceamento automático (partições iguais)
  * - Sem sincronização durante cálculo
  * - Escalável para muitos cores
+ * 
+ * FORKJOIN (RecursiveTask):
+ * - Divide recursivamente até o limiar; cada worker tem sua deque
+ * - Workers ociosos roubam tarefas da ponta oposta das deques alheias
+ * - Pool reaproveitado: a criação de threads sai do caminho crítico
+ * 
+ * WORKERS PERSISTENTES (PoolPersistente):
+ * - Threads criadas uma vez; cada soma é entregue por troca de fase
+ * - Criação/join saem do caminho crítico (ganho maior em vetores pequenos)
+ * 
+ * PARTIÇÕES LOCAIS (ParticoesLocais):
+ * - Cada worker aloca e preenche sua partição (first-touch paralelo)
+ * - Workers persistentes; afinidade fixa mantém partição → worker
+ * 
+ * STREAMING (java SomaParalela streaming [arquivo]):
+ * - Leitora só faz I/O; chunks vão para um pool limitado (I/O e soma sobrepostos)
+ * - Buffers reciclados: memória = tamanho do chunk × chunks em voo
+ * - Total parcial (LongAdder) consultável a qualquer momento
+ * 
+ * KERNEL (somaKernel):
+ * - Usado nas partições das versões sequencial, paralela e ForkJoin
+ * - Padrão: 4 acumuladores independentes, que não ficam presos à latência
+ *   de uma única soma dependente por iteração (sem garantia de SIMD)
+ * - Opt-in: IntVector (vetorial/SomaVetorial.java + --add-modules
+ *   jdk.incubator.vector), com alargamento explícito int → long
+ * 
+ * ENTRADA MAPEADA (java SomaParalela mapeado [arquivo|-] [elementos] [manter]):
+ * - Arquivo de ints little-endian lido via FileChannel.map
+ * - Cada thread mapeia janelas de até 1 GB da sua partição
+ * - Dados no page cache, fora do heap: além de 2^31 elementos
+ * - Padrão: 100M ints em um arquivo temporário, apagado no final
  */
\ No newline at end of file
@@ -1,3 +1,5 @@
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -14,9 +16,9 @@ public class ThreadPool {
         private final int[] dados;
         private final int inicio;
         private final int fim;
-        private final long[] resultados;
+        private final ResultadosParciais resultados;
         
-        public TarefaProcessamento(int id, int[] dados, int inicio, int fim, long[] resultados) {
+        public TarefaProcessamento(int id, int[] dados, int inicio, int fim, ResultadosParciais resultados) {
             this.id = id;
             this.dados = dados;
             this.inicio = inicio;
@@ -36,10 +38,17 @@ public class ThreadPool {
                     soma += dados[i] * 2;
                 }
             }
-            resultados[id] = soma;
+            resultados.set(id, soma);
         }
     }
     
+    /**
+     * O mesmo processamento de TarefaProcessamento como mapa por elemento
+     */
+    static long processar(int valor) {
+        return valor % 2 == 0 ? valor + valor * 2 : valor;
+    }
+    
     public static void main(String[] args) {
         System.out.println("=== Atividade 11 - Pool de Threads ===\n");
         
@@ -73,6 +82,26 @@ public class ThreadPool {
                             M, tempoPool, tempoThreadPorTarefa, speedup, economia);
         }
         
+        // Mesma carga com os dados em partições locais de workers persistentes
+        ParticoesLocais locais = new ParticoesLocais(poolSize, tamanhoArray, i -> i % 100);
+        // Linha de base com o pool criado uma vez, fora da medição: a diferença
+        // fica só na localidade dos dados, não no custo de criar threads
+        ExecutorService poolPronto = Executors.newFixedThreadPool(poolSize);
+        long esperado = executarComPool(dados, 100, poolSize);
+        long tempoPoolDados = medirComPool(dados, poolSize, poolPronto);
+        long tempoLocal = medirComParticoesLocais(locais);
+        boolean correto = executarComParticoesLocais(locais) == esperado;
+        boolean corretoPool = executarComPool(dados, poolSize, poolPronto) == esperado;
+        locais.encerrar();
+        poolPronto.shutdown();
+        
+        System.out.printf("\n| %-29s | Tempo (ms) | Correto? |\n", poolSize + " blocos, " + poolSize + " threads");
+        System.out.println("|-------------------------------|------------|----------|");
+        System.out.printf("| %-29s | %10d | %8s |\n", "Pool pronto, dados do main", tempoPoolDados,
+                        corretoPool ? "Sim ✓" : "Não ✗");
+        System.out.printf("| %-29s | %10d | %8s |\n", "Partições locais fixas", tempoLocal,
+                        correto ? "Sim ✓" : "Não ✗");
+        
         System.out.println("\n--- ANÁLISE: QUANDO O POOL COMPENSA ---");
         System.out.println();
         System.out.println("POOL DE THREADS COMPENSA quando:");
@@ -117,7 +146,7 @@ public class ThreadPool {
      */
     static long executarComPool(int[] dados, int numTarefas, int poolSize) {
         ExecutorService pool = Executors.newFixedThreadPool(poolSize);
-        long[] resultados = new long[numTarefas];
+        ResultadosParciais resultados = new ResultadosParciais(numTarefas);
         
         int tamanhoBloco = dados.length / numTarefas;
         
@@ -138,12 +167,34 @@ public class ThreadPool {
         }
         
         // Agregar resultados
-        long total = 0;
-        for (long r : resultados) {
-            total += r;
-        }
-        
-        return total;
+        return resultados.somar();
+    }
+    
+    /**
+     * Mesmo processamento sobre a API genérica de map-reduce (ForkJoin)
+     */
+    static long executarMapReduce(int[] dados, int numThreads) {
+        return ReducaoParalela.reduzirPorFolha(dados, (d, inicio, fim) -> {
+            long soma = 0;
+            for (int i = inicio; i < fim; i++) {
+                soma += processar(d[i]);
+            }
+            return soma;
+        }, Long::sum, numThreads);
+    }
+    
+    /**
+     * Mesmo processamento sobre partições preenchidas pelos próprios workers
+     * (first-touch), cada worker sempre com a sua partição
+     */
+    static long executarComParticoesLocais(ParticoesLocais locais) {
+        return locais.executar(particao -> {
+            long soma = 0;
+            for (int valor : particao) {
+                soma += processar(valor);
+            }
+            return soma;
+        }, true);
     }
     
     /**
@@ -151,7 +202,7 @@ public class ThreadPool {
      */
     static long executarThreadPorTarefa(int[] dados, int numTarefas) {
         Thread[] threads = new Thread[numTarefas];
-        long[] resultados = new long[numTarefas];
+        ResultadosParciais resultados = new ResultadosParciais(numTarefas);
         
         int tamanhoBloco = dados.length / numTarefas;
         
@@ -174,49 +225,74 @@ public class ThreadPool {
         }
         
         // Agregar resultados
-        long total = 0;
-        for (long r : resultados) {
-            total += r;
+        return resultados.somar();
+    }
+    
+    /**
+     * Executa as tarefas em um pool já criado (sem criar nem encerrar threads)
+     */
+    static long executarComPool(int[] dados, int numTarefas, ExecutorService pool) {
+        ResultadosParciais resultados = new ResultadosParciais(numTarefas);
+        List<Future<?>> pendentes = new ArrayList<>(numTarefas);
+        
+        int tamanhoBloco = dados.length / numTarefas;
+        
+        for (int i = 0; i < numTarefas; i++) {
+            int inicio = i * tamanhoBloco;
+            int fim = (i == numTarefas - 1) ? dados.length : (i + 1) * tamanhoBloco;
+            
+            pendentes.add(pool.submit(new TarefaProcessamento(i, dados, inicio, fim, resultados)));
+        }
+        
+        // get() de cada tarefa: espera e publica o resultado (happens-before)
+        for (Future<?> tarefa : pendentes) {
+            try {
+                tarefa.get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
         }
         
-        return total;
+        return resultados.somar();
     }
     
     /**
      * Mede tempo usando pool
      */
     static long medirComPool(int[] dados, int numTarefas, int poolSize) {
-        // Aquecimento
-        executarComPool(dados, numTarefas, poolSize);
-        
-        // Medir 3 vezes
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            long inicio = System.nanoTime();
-            executarComPool(dados, numTarefas, poolSize);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> executarComPool(dados, numTarefas, poolSize));
+        
+        return Math.round(r.mediaMs());
+    }
+    
+    /**
+     * Mede tempo usando um pool já criado
+     */
+    static long medirComPool(int[] dados, int numTarefas, ExecutorService pool) {
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> executarComPool(dados, numTarefas, pool));
         
-        return (tempos[0] + tempos[1] + tempos[2]) / 3;
+        return Math.round(r.mediaMs());
+    }
+    
+    /**
+     * Mede tempo com partições locais
+     */
+    static long medirComParticoesLocais(ParticoesLocais locais) {
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> executarComParticoesLocais(locais));
+        
+        return Math.round(r.mediaMs());
     }
     
     /**
      * Mede tempo criando thread por tarefa
      */
     static long medirThreadPorTarefa(int[] dados, int numTarefas) {
-        // Aquecimento
-        executarThreadPorTarefa(dados, numTarefas);
-        
-        // Medir 3 vezes
-        long[] tempos = new long[3];
-        for (int i = 0; i < 3; i++) {
-            long inicio = System.nanoTime();
-            executarThreadPorTarefa(dados, numTarefas);
-            long fim = System.nanoTime();
-            tempos[i] = (fim - inicio) / 1_000_000;
-        }
+        // Aquecimento + medições padrão do Medidor (média)
+        Medidor.Resultado r = Medidor.medir(() -> executarThreadPorTarefa(dados, numTarefas));
         
-        return (tempos[0] + tempos[1] + tempos[2]) / 3;
+        return Math.round(r.mediaMs());
     }
 }
\ No newline at end of file
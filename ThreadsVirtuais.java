@@ -0,0 +1,135 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilitário - Threads virtuais com fallback para threads de plataforma
+ * Objetivo: Oferecer o modo virtual (JDK 21+) sem impedir a compilação
+ * e a execução em JDKs mais antigos
+ */
+public class ThreadsVirtuais {
+    
+    // Thread.startVirtualThread(Runnable) existe a partir do JDK 21
+    private static final Method INICIAR_VIRTUAL = buscarMetodo();
+    
+    private static Method buscarMetodo() {
+        try {
+            return Thread.class.getMethod("startVirtualThread", Runnable.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Threads virtuais estão disponíveis nesta JVM?
+     */
+    static boolean disponivel() {
+        return INICIAR_VIRTUAL != null;
+    }
+    
+    /**
+     * Cria e inicia uma thread virtual ou de plataforma
+     */
+    static Thread iniciar(Runnable tarefa, boolean virtual) {
+        if (!virtual) {
+            Thread t = new Thread(tarefa);
+            t.start();
+            return t;
+        }
+        if (INICIAR_VIRTUAL == null) {
+            throw new UnsupportedOperationException("Threads virtuais exigem JDK 21+");
+        }
+        try {
+            return (Thread) INICIAR_VIRTUAL.invoke(null, tarefa);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Falha ao iniciar thread virtual", e);
+        }
+    }
+    
+    /**
+     * Memória residente atual do processo em KB (Linux: VmRSS), ou -1
+     */
+    static long rssKb() {
+        return lerStatus("VmRSS:");
+    }
+    
+    /**
+     * Executa main(argumentos) de 'classe' em uma JVM nova (mesmo java,
+     * classpath e opções) e devolve os números da última linha impressa,
+     * ou null se o processo falhou. Medições de memória que rodam uma após
+     * a outra na mesma JVM herdam o heap e as pilhas das anteriores.
+     */
+    static long[] executarEmNovaJvm(Class<?> classe, String... argumentos) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(classe.getName());
+        for (String argumento : argumentos) {
+            comando.add(argumento);
+        }
+        
+        try {
+            Process processo = new ProcessBuilder(comando).redirectErrorStream(true).start();
+            String ultima = null;
+            try (BufferedReader leitor = new BufferedReader(new InputStreamReader(processo.getInputStream()))) {
+                String linha;
+                while ((linha = leitor.readLine()) != null) {
+                    ultima = linha;
+                }
+            }
+            if (processo.waitFor() != 0 || ultima == null) {
+                return null;
+            }
+            
+            String[] partes = ultima.trim().split("\\s+");
+            long[] valores = new long[partes.length];
+            for (int i = 0; i < partes.length; i++) {
+                valores[i] = Long.parseLong(partes[i]);
+            }
+            return valores;
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    /**
+     * Imprime o resultado de uma medição para executarEmNovaJvm e encerra
+     * (status 2 se não houve resultado)
+     */
+    static void responderJvmPai(long[] resultado) {
+        if (resultado == null) {
+            System.exit(2);
+        }
+        StringBuilder linha = new StringBuilder();
+        for (long valor : resultado) {
+            linha.append(valor).append(' ');
+        }
+        System.out.println(linha.toString().trim());
+        System.exit(0);
+    }
+    
+    private static long lerStatus(String campo) {
+        try {
+            for (String linha : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (linha.startsWith(campo)) {
+                    return Long.parseLong(linha.substring(campo.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Sem /proc (não-Linux): métrica indisponível
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel opcional - Soma de int[] com a Vector API (jdk.incubator.vector)
+ * Objetivo: SIMD explícito para SomaParalela.somaKernel. Fica fora do
+ * diretório principal para que "javac *.java" continue sem --add-modules:
+ *
+ *   javac -encoding UTF-8 -cp . -d . --add-modules jdk.incubator.vector vetorial/SomaVetorial.java
+ *   java --add-modules jdk.incubator.vector SomaParalela
+ *
+ * Sem a classe ou sem o módulo, SomaParalela usa o kernel escalar.
+ */
+public class SomaVetorial implements ReducaoParalela.FolhaIntLong {
+    
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    
+    // Mesma largura em bits: cada vetor de ints vira duas metades de longs
+    private static final VectorSpecies<Long> LONGS = VectorSpecies.of(long.class, INTS.vectorShape());
+    
+    @Override
+    public long reduzir(int[] vetor, int inicio, int fim) {
+        LongVector acumulador = LongVector.zero(LONGS);
+        int i = inicio;
+        int limite = inicio + INTS.loopBound(fim - inicio);
+        
+        for (; i < limite; i += INTS.length()) {
+            IntVector v = IntVector.fromArray(INTS, vetor, i);
+            // Alarga para long antes de somar: sem overflow nas lanes
+            acumulador = acumulador.add((LongVector) v.convertShape(VectorOperators.I2L, LONGS, 0))
+                                   .add((LongVector) v.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+        
+        long soma = acumulador.reduceLanes(VectorOperators.ADD);
+        for (; i < fim; i++) {
+            soma += vetor[i];
+        }
+        return soma;
+    }
+}
\ No newline at end of file